@@ -0,0 +1,92 @@
+package com.parser.LLM.Data.bench;
+
+import com.parser.LLM.Data.normalize.DecimalParser;
+import com.parser.LLM.Data.normalize.Timestamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-field costs: price and volume parsing, timestamp parsing and label formatting.
+ * Each invocation handles {@value #FIELDS} values, so scores are per field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldParsingBenchmark {
+
+    private static final int FIELDS = 1024;
+
+    private String[] prices;
+    private String[] volumes;
+    private String[] timestamps;
+    private long[] epochs;
+    private final char[] label = new char[Timestamps.DATE_LENGTH];
+
+    @Setup
+    public void setUp() {
+        prices = Fixtures.prices(FIELDS, 7);
+        volumes = new String[FIELDS];
+        timestamps = Fixtures.timestamps(FIELDS);
+        epochs = new long[FIELDS];
+        for (int i = 0; i < FIELDS; i++) {
+            volumes[i] = Integer.toString(i * 7919);
+            epochs[i] = Timestamps.parseEpochSeconds(timestamps[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void parseDouble(Blackhole bh) {
+        for (String price : prices) {
+            bh.consume(DecimalParser.parseDouble(price));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void parseDoubleJdk(Blackhole bh) {
+        for (String price : prices) {
+            bh.consume(Double.parseDouble(price));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void parseLong(Blackhole bh) {
+        for (String volume : volumes) {
+            bh.consume(DecimalParser.parseLong(volume));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void parseTimestamp(Blackhole bh) {
+        for (String ts : timestamps) {
+            bh.consume(Timestamps.parseEpochSeconds(ts));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void formatTimeLabel(Blackhole bh) {
+        for (long epoch : epochs) {
+            bh.consume(Timestamps.formatTime(epoch, label, 0));
+        }
+        bh.consume(label);
+    }
+}
@@ -0,0 +1,75 @@
+package com.parser.LLM.Data.bench;
+
+import com.parser.LLM.Data.fixtures.PayloadGenerator;
+import com.parser.LLM.Data.provider.AlphaVantageAdapter;
+import com.parser.LLM.Data.provider.BinanceAdapter;
+import com.parser.LLM.Data.provider.FinnhubAdapter;
+import com.parser.LLM.Data.provider.PolygonAdapter;
+import com.parser.LLM.Data.provider.ProviderRegistry;
+import com.parser.LLM.Data.provider.YahooChartAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Inputs shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static ProviderRegistry registry() {
+        return new ProviderRegistry(List.of(
+                new AlphaVantageAdapter(), new PolygonAdapter(), new BinanceAdapter(),
+                new YahooChartAdapter(), new FinnhubAdapter()));
+    }
+
+    /**
+     * Alpha Vantage intraday payload with {@code bars} 5-minute bars, newest first.
+     */
+    static byte[] alphaVantageIntraday(int bars, long seed) {
+        PayloadGenerator.Spec spec = new PayloadGenerator.Spec(
+                PayloadGenerator.Vendor.ALPHA_VANTAGE, "IBM", bars, 300, seed, 0, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bars * 160 + 512);
+        try {
+            new PayloadGenerator(spec).write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    static String[] prices(int n, long seed) {
+        Random random = new Random(seed);
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = price(random.nextDouble() * 1_000);
+        }
+        return out;
+    }
+
+    static String[] timestamps(int n) {
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = timestamp(1_704_484_500L - i * 300L);
+        }
+        return out;
+    }
+
+    private static String price(double v) {
+        return String.format(Locale.US, "%.4f", v);
+    }
+
+    private static String timestamp(long epoch) {
+        LocalDateTime t = LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC);
+        return String.format(Locale.US, "%04d-%02d-%02d %02d:%02d:%02d",
+                t.getYear(), t.getMonthValue(), t.getDayOfMonth(), t.getHour(), t.getMinute(), t.getSecond());
+    }
+}
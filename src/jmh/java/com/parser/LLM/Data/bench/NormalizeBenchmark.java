@@ -0,0 +1,70 @@
+package com.parser.LLM.Data.bench;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.SortOrder;
+import com.parser.LLM.Data.provider.ProviderHints;
+import com.parser.LLM.Data.provider.ProviderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alpha Vantage payload to normalized series, and the full JSON to JSON path
+ * the controller runs for an uncached request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizeBenchmark {
+
+    @Param({"100", "10000", "200000"})
+    public int bars;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProviderRegistry registry = Fixtures.registry();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = Fixtures.alphaVantageIntraday(bars, 42);
+    }
+
+    @Benchmark
+    public BarSeries decode() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return registry.decode(parser, null, ProviderHints.NONE);
+        }
+    }
+
+    @Benchmark
+    public BarSeries decodeKnownProvider() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return registry.decode(parser, "alphavantage", ProviderHints.NONE);
+        }
+    }
+
+    @Benchmark
+    public byte[] endToEnd() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            BarSeries series = registry.decode(parser, null, ProviderHints.NONE);
+            series.order(SortOrder.DESC);
+            return objectMapper.writeValueAsBytes(series);
+        }
+    }
+}
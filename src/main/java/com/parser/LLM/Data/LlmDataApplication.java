@@ -2,8 +2,10 @@ package com.parser.LLM.Data;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class LlmDataApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,301 @@
+package com.parser.LLM.Data.arrow;
+
+import com.parser.LLM.Data.normalize.BarWriter;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampSecVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes bars as an Arrow IPC stream of record batches with the columns
+ * {@code timestamp, open, high, low, close, volume}.
+ *
+ * Timestamps are seconds without a time zone, because epochs are wall-clock
+ * time in the series zone; the zone itself travels as metadata. Bars are
+ * collected into fixed-size batches that are written and reused as soon as
+ * they fill up, so a response holds at most one batch no matter how long the
+ * series is.
+ *
+ * There are two layouts:
+ * <ul>
+ *   <li>{@link #series}: one series, with {@code s}, {@code i} and {@code tz}
+ *       as schema metadata</li>
+ *   <li>{@link #lines}: the NDJSON batch endpoint, where every row also carries
+ *       its input {@code line}, {@code symbol}, {@code interval} and {@code tz}.
+ *       A line that failed yields a single row with {@code error} set and the
+ *       bar columns null, mirroring the {@code {"line", "error"}} objects of
+ *       the NDJSON response</li>
+ * </ul>
+ *
+ * {@link com.parser.LLM.Data.normalize.BarSink} methods cannot throw checked
+ * exceptions, so write failures surface as {@link UncheckedIOException}.
+ */
+public final class ArrowBarWriter implements BarWriter {
+
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final ArrowType TIMESTAMP = new ArrowType.Timestamp(TimeUnit.SECOND, null);
+    private static final ArrowType FLOAT64 = new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+    private static final ArrowType INT64 = new ArrowType.Int(64, true);
+    private static final ArrowType INT32 = new ArrowType.Int(32, true);
+    private static final ArrowType UTF8 = ArrowType.Utf8.INSTANCE;
+
+    private final BufferAllocator allocator;
+    private final int batchSize;
+    private final OutputStream out;
+    private final boolean perLine;
+
+    private VectorSchemaRoot root;
+    private ArrowStreamWriter writer;
+    private int rows;
+    private int bars;
+
+    private IntVector lineColumn;
+    private VarCharVector symbolColumn;
+    private VarCharVector intervalColumn;
+    private VarCharVector timeZoneColumn;
+    private VarCharVector errorColumn;
+    private TimeStampSecVector timestampColumn;
+    private Float8Vector openColumn;
+    private Float8Vector highColumn;
+    private Float8Vector lowColumn;
+    private Float8Vector closeColumn;
+    private BigIntVector volumeColumn;
+
+    private int line;
+    private byte[] symbol;
+    private byte[] interval;
+    private byte[] timeZone;
+
+    private ArrowBarWriter(BufferAllocator parent, int batchSize, OutputStream out, boolean perLine) {
+        this.allocator = parent.newChildAllocator("arrow-response", 0, parent.getLimit());
+        this.batchSize = batchSize;
+        this.out = out;
+        this.perLine = perLine;
+    }
+
+    /**
+     * Writer for a single series. Nothing is written before {@link #describe}.
+     */
+    public static ArrowBarWriter series(BufferAllocator allocator, int batchSize, OutputStream out) {
+        return new ArrowBarWriter(allocator, batchSize, out, false);
+    }
+
+    /**
+     * Writer for many series, one per input line; call {@link #line} before each.
+     */
+    public static ArrowBarWriter lines(BufferAllocator allocator, int batchSize, OutputStream out) {
+        return new ArrowBarWriter(allocator, batchSize, out, true);
+    }
+
+    @Override
+    public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+        if (perLine) {
+            this.symbol = utf8(symbol);
+            this.interval = utf8(interval);
+            this.timeZone = utf8(timeZone);
+            start(null);
+            return;
+        }
+        if (root != null) {
+            return;
+        }
+        Map<String, String> metadata = new LinkedHashMap<>();
+        putIfPresent(metadata, "s", symbol);
+        putIfPresent(metadata, "i", interval);
+        putIfPresent(metadata, "tz", timeZone);
+        start(metadata);
+    }
+
+    @Override
+    public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+        int row = nextRow();
+        if (perLine) {
+            writeLineColumns(row);
+        }
+        timestampColumn.setSafe(row, epochSeconds);
+        openColumn.setSafe(row, open);
+        highColumn.setSafe(row, high);
+        lowColumn.setSafe(row, low);
+        closeColumn.setSafe(row, close);
+        volumeColumn.setSafe(row, volume);
+        bars++;
+    }
+
+    /**
+     * Starts the rows of input line {@code line}; the header of its series follows.
+     */
+    public void line(int line) {
+        this.line = line;
+        this.symbol = null;
+        this.interval = null;
+        this.timeZone = null;
+    }
+
+    /**
+     * Records that input line {@code line} could not be normalized.
+     */
+    public void error(int line, String message) {
+        line(line);
+        start(null);
+        int row = nextRow();
+        writeLineColumns(row);
+        errorColumn.setSafe(row, utf8(message == null ? "" : message));
+    }
+
+    /**
+     * Writes the last, partial batch and the end-of-stream marker.
+     */
+    @Override
+    public void finish() throws IOException {
+        if (perLine) {
+            start(null);
+        } else if (root == null) {
+            throw new IllegalStateException("Series was never described");
+        }
+        if (rows > 0) {
+            writeBatch();
+        }
+        writer.end();
+        out.flush();
+    }
+
+    @Override
+    public boolean started() {
+        return root != null;
+    }
+
+    @Override
+    public int bars() {
+        return bars;
+    }
+
+    /**
+     * Releases the column buffers. The output stream is left open.
+     */
+    @Override
+    public void close() {
+        if (root != null) {
+            root.close();
+        }
+        allocator.close();
+    }
+
+    private void start(Map<String, String> metadata) {
+        if (root != null) {
+            return;
+        }
+        List<Field> fields = new ArrayList<>();
+        if (perLine) {
+            fields.add(Field.notNullable("line", INT32));
+            fields.add(Field.nullable("symbol", UTF8));
+            fields.add(Field.nullable("interval", UTF8));
+            fields.add(Field.nullable("tz", UTF8));
+            fields.add(Field.nullable("error", UTF8));
+        }
+        // Bar columns are only null on error rows
+        fields.add(new Field("timestamp", barColumn(TIMESTAMP), null));
+        fields.add(new Field("open", barColumn(FLOAT64), null));
+        fields.add(new Field("high", barColumn(FLOAT64), null));
+        fields.add(new Field("low", barColumn(FLOAT64), null));
+        fields.add(new Field("close", barColumn(FLOAT64), null));
+        fields.add(new Field("volume", barColumn(INT64), null));
+
+        root = VectorSchemaRoot.create(new Schema(fields, metadata), allocator);
+        if (perLine) {
+            lineColumn = (IntVector) root.getVector("line");
+            symbolColumn = (VarCharVector) root.getVector("symbol");
+            intervalColumn = (VarCharVector) root.getVector("interval");
+            timeZoneColumn = (VarCharVector) root.getVector("tz");
+            errorColumn = (VarCharVector) root.getVector("error");
+        }
+        timestampColumn = (TimeStampSecVector) root.getVector("timestamp");
+        openColumn = (Float8Vector) root.getVector("open");
+        highColumn = (Float8Vector) root.getVector("high");
+        lowColumn = (Float8Vector) root.getVector("low");
+        closeColumn = (Float8Vector) root.getVector("close");
+        volumeColumn = (BigIntVector) root.getVector("volume");
+
+        writer = new ArrowStreamWriter(root, null, out);
+        try {
+            writer.start();
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private FieldType barColumn(ArrowType type) {
+        return new FieldType(perLine, type, null);
+    }
+
+    /**
+     * Index of the next row, writing out the current batch first when it is full.
+     */
+    private int nextRow() {
+        if (root == null) {
+            throw new IllegalStateException("Series was never described");
+        }
+        if (rows == batchSize) {
+            try {
+                writeBatch();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return rows++;
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(rows);
+        writer.writeBatch();
+        // Keeps the buffers, so later batches reuse the memory of the first one
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+        rows = 0;
+    }
+
+    private void writeLineColumns(int row) {
+        lineColumn.setSafe(row, line);
+        if (symbol != null) {
+            symbolColumn.setSafe(row, symbol);
+        }
+        if (interval != null) {
+            intervalColumn.setSafe(row, interval);
+        }
+        if (timeZone != null) {
+            timeZoneColumn.setSafe(row, timeZone);
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> metadata, String key, String value) {
+        if (value != null) {
+            metadata.put(key, value);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
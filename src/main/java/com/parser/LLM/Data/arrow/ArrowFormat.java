@@ -0,0 +1,45 @@
+package com.parser.LLM.Data.arrow;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+
+/**
+ * Creates {@link ArrowBarWriter}s that share one allocator, so the off-heap
+ * memory of all Arrow responses is bounded by {@code llm-data.arrow.max-memory}.
+ */
+@Component
+public class ArrowFormat implements DisposableBean {
+
+    private final RootAllocator allocator;
+    private final int batchSize;
+
+    public ArrowFormat(ArrowProperties properties) {
+        if (properties.batchSize() <= 0) {
+            throw new IllegalArgumentException("llm-data.arrow.batch-size must be positive");
+        }
+        this.allocator = new RootAllocator(properties.maxMemory().toBytes());
+        this.batchSize = properties.batchSize();
+    }
+
+    /**
+     * Writer for a single series, see {@link ArrowBarWriter#series}.
+     */
+    public ArrowBarWriter newWriter(OutputStream out) {
+        return ArrowBarWriter.series(allocator, batchSize, out);
+    }
+
+    /**
+     * Writer for a batch of series, see {@link ArrowBarWriter#lines}.
+     */
+    public ArrowBarWriter newLineWriter(OutputStream out) {
+        return ArrowBarWriter.lines(allocator, batchSize, out);
+    }
+
+    @Override
+    public void destroy() {
+        allocator.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.parser.LLM.Data.arrow;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for Arrow IPC responses ({@code llm-data.arrow.*}).
+ *
+ * @param batchSize  rows per record batch; a response holds at most one batch in memory
+ * @param maxMemory  upper bound on the off-heap memory of all Arrow responses in flight
+ */
+@ConfigurationProperties("llm-data.arrow")
+public record ArrowProperties(
+        @DefaultValue("8192") int batchSize,
+        @DefaultValue("256MB") DataSize maxMemory) {
+}
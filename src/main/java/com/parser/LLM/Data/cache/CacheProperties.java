@@ -0,0 +1,24 @@
+package com.parser.LLM.Data.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the normalize response cache ({@code llm-data.cache.*}).
+ *
+ * @param enabled         whether responses are cached at all
+ * @param maxSize         upper bound on the cached response bytes
+ * @param ttl             how long an entry is served after it was written
+ * @param maxRequestSize  largest request body that is buffered and fingerprinted;
+ *                        bigger bodies are streamed and never cached
+ */
+@ConfigurationProperties("llm-data.cache")
+public record CacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("60s") Duration ttl,
+        @DefaultValue("4MB") DataSize maxRequestSize) {
+}
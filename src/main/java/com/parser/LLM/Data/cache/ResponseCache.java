@@ -0,0 +1,72 @@
+package com.parser.LLM.Data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized normalize responses keyed by a fingerprint of the raw request body.
+ *
+ * Agents tend to resubmit the exact same provider payload, so a hit skips
+ * parsing, sorting and serialization and hands back the bytes of the first
+ * response. The key is the xxHash64 of the body plus its length and the
+ * request options; a 64-bit hash collision between two live entries is
+ * accepted as practically impossible.
+ *
+ * Entries are weighed by their byte length, expire a fixed time after they
+ * were written, and report {@code cache.gets}, {@code cache.puts} and
+ * {@code cache.evictions} under {@code cache=normalize-responses}.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String NAME = "normalize-responses";
+
+    // Rough per-entry cost of the key, node and array header on top of the payload bytes
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final CacheProperties properties;
+    private final Cache<Key, byte[]> cache;
+
+    public ResponseCache(CacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((Key key, byte[] value) -> value.length + ENTRY_OVERHEAD)
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    /**
+     * Whether a body of {@code length} bytes should be buffered and looked up.
+     * A negative length means the size is unknown up front.
+     */
+    public boolean accepts(long length) {
+        return properties.enabled() && length >= 0 && length <= properties.maxRequestSize().toBytes();
+    }
+
+    public Key key(byte[] body, int off, int len, Object variant) {
+        return new Key(XxHash64.hash(body, off, len, 0), len, variant);
+    }
+
+    /**
+     * Returns the cached response bytes, or {@code null} on a miss.
+     */
+    public byte[] get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(Key key, byte[] response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * @param variant anything besides the body that changes the response, e.g. query options
+     */
+    public record Key(long hash, int length, Object variant) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.parser.LLM.Data.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * A response that is encoded with a {@link ContentCoding} once it outgrows
+ * {@link CompressionProperties#minResponseSize()}.
+ *
+ * Output is held back until that many bytes are written. A response that
+ * finishes below the threshold goes out as is, with its length; a bigger one
+ * is encoded from the first byte on and streamed without a length. Flushes are
+ * ignored while held back, so a streamed response reaches the client a
+ * threshold's worth at first and then row by row as before. A body that already
+ * names a {@code Content-Encoding}, an error, a bodiless status and a body
+ * written through a {@link WriteListener} are left alone.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+
+    private enum State {
+        HOLDING, ENCODING, IDENTITY, FINISHED
+    }
+
+    private final ContentCoding coding;
+    private final CompressionProperties properties;
+    private final byte[] held;
+    private int heldLength;
+    private long declaredLength = -1;
+    private State state = State.HOLDING;
+    private OutputStream target;
+    private ServletOutputStream stream;
+    private ServletOutputStream nonBlocking;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, ContentCoding coding, CompressionProperties properties) {
+        super(response);
+        this.coding = coding;
+        this.properties = properties;
+        this.held = new byte[Math.toIntExact(properties.minResponseSize().toBytes())];
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (stream == null) {
+            stream = new Body();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.HOLDING) {
+            declaredLength = len;
+        } else if (state == State.IDENTITY) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (state == State.HOLDING) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.ENCODING) {
+            target.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        bypass();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        bypass();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        bypass();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (state == State.HOLDING) {
+            heldLength = 0;
+            declaredLength = -1;
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (state == State.HOLDING) {
+            heldLength = 0;
+        }
+    }
+
+    /**
+     * Writes what is still held back, or completes the encoding. Called once the
+     * handler is done with the response.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        switch (state) {
+            case HOLDING -> {
+                state = State.IDENTITY;
+                super.setContentLengthLong(heldLength);
+                if (heldLength > 0) {
+                    super.getOutputStream().write(held, 0, heldLength);
+                }
+            }
+            // The encoder leaves the servlet stream open for the container
+            case ENCODING -> target.close();
+            default -> {
+            }
+        }
+        state = State.FINISHED;
+    }
+
+    private void bypass() {
+        if (state == State.HOLDING) {
+            heldLength = 0;
+            state = State.FINISHED;
+        }
+    }
+
+    /**
+     * Decides the encoding once the response is known to reach the threshold.
+     */
+    private void begin() throws IOException {
+        int status = getStatus();
+        begin(getHeader(HttpHeaders.CONTENT_ENCODING) == null && status >= 200 && status != SC_NO_CONTENT
+                && status != SC_NOT_MODIFIED);
+    }
+
+    private void begin(boolean encode) throws IOException {
+        OutputStream raw = super.getOutputStream();
+        if (!encode) {
+            state = State.IDENTITY;
+            if (declaredLength >= 0) {
+                super.setContentLengthLong(declaredLength);
+            }
+            target = raw;
+        } else {
+            state = State.ENCODING;
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+            target = coding.encoder(new FilterOutputStream(raw) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            }, properties);
+        }
+        target.write(held, 0, heldLength);
+        heldLength = 0;
+    }
+
+    private final class Body extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            switch (state) {
+                case HOLDING -> {
+                    if (heldLength + len < held.length) {
+                        System.arraycopy(b, off, held, heldLength, len);
+                        heldLength += len;
+                        return;
+                    }
+                    begin();
+                    target.write(b, off, len);
+                }
+                case ENCODING, IDENTITY -> target.write(b, off, len);
+                case FINISHED -> throw new IOException("Response already finished");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state == State.ENCODING || state == State.IDENTITY) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return nonBlocking == null || nonBlocking.isReady();
+        }
+
+        /**
+         * An encoder writes in bursts that a listener cannot pace, so a
+         * response written without blocking goes out as is, straight to the
+         * container's stream.
+         */
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            if (state == State.ENCODING) {
+                throw new IllegalStateException("The response is already being encoded");
+            }
+            try {
+                if (state == State.HOLDING) {
+                    begin(false);
+                }
+                nonBlocking = CompressingResponse.super.getOutputStream();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            nonBlocking.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.parser.LLM.Data.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for compressed responses ({@code llm-data.compression.*}).
+ * Compressed request bodies are always accepted.
+ *
+ * @param enabled          whether responses are compressed when the client
+ *                         accepts it
+ * @param minResponseSize  smallest response that is compressed; below it the
+ *                         encoding costs more than it saves
+ * @param gzipLevel        deflate level, 1 (fastest) to 9
+ * @param zstdLevel        zstd level, 1 (fastest) to 19
+ */
+@ConfigurationProperties("llm-data.compression")
+public record CompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2KB") DataSize minResponseSize,
+        @DefaultValue("6") int gzipLevel,
+        @DefaultValue("3") int zstdLevel) {
+}
@@ -0,0 +1,142 @@
+package com.parser.LLM.Data.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings understood on requests and offered on responses, in
+ * order of preference: zstd compresses bar data about as tightly as gzip at a
+ * fraction of the CPU.
+ */
+public enum ContentCoding {
+
+    ZSTD("zstd") {
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+
+        @Override
+        public OutputStream encoder(OutputStream out, CompressionProperties properties) throws IOException {
+            return new ZstdOutputStream(out, properties.zstdLevel());
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream encoder(OutputStream out, CompressionProperties properties) throws IOException {
+            // Sync flush, so a flushed row of a streamed response reaches the client
+            return new GZIPOutputStream(out, BUFFER_SIZE, true) {
+                {
+                    def.setLevel(properties.gzipLevel());
+                }
+            };
+        }
+    };
+
+    /** Every coding accepted in {@code Content-Encoding}, for the 415 response. */
+    public static final String SUPPORTED = "zstd, gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Wraps a compressed body. May read the coding's header from {@code in}.
+     */
+    public abstract InputStream decoder(InputStream in) throws IOException;
+
+    /**
+     * Wraps a response body. Closing the returned stream closes {@code out}.
+     */
+    public abstract OutputStream encoder(OutputStream out, CompressionProperties properties) throws IOException;
+
+    /**
+     * The coding named by a {@code Content-Encoding} value, {@code null} for
+     * none or "identity".
+     *
+     * @throws IllegalArgumentException for any other coding, including stacked
+     *                                  ones such as "gzip, zstd"
+     */
+    public static ContentCoding forContentEncoding(String header) {
+        if (header == null) {
+            return null;
+        }
+        String name = header.trim().toLowerCase(Locale.ROOT);
+        return switch (name) {
+            case "", "identity" -> null;
+            case "gzip", "x-gzip" -> GZIP;
+            case "zstd" -> ZSTD;
+            default -> throw new IllegalArgumentException("Unsupported Content-Encoding: " + header);
+        };
+    }
+
+    /**
+     * The preferred coding that {@code Accept-Encoding} allows, {@code null}
+     * when it allows none. Higher q-values win; ties go to the order of
+     * declaration above. "*" stands for codings not listed.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double[] quality = {-1, -1};
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String name = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            double q = semicolon < 0 ? 1 : quality(part.substring(semicolon + 1));
+            switch (name) {
+                case "zstd" -> quality[ZSTD.ordinal()] = q;
+                case "gzip", "x-gzip" -> quality[GZIP.ordinal()] = q;
+                case "*" -> wildcard = q;
+                default -> {
+                }
+            }
+        }
+        ContentCoding best = null;
+        double bestQuality = 0;
+        for (ContentCoding coding : values()) {
+            double q = quality[coding.ordinal()] >= 0 ? quality[coding.ordinal()] : wildcard;
+            if (q > bestQuality) {
+                best = coding;
+                bestQuality = q;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String p = parameter.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(p.substring(2));
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,93 @@
+package com.parser.LLM.Data.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Content codings for the API: request bodies sent with
+ * {@code Content-Encoding: gzip} or {@code zstd} are decoded as the handler
+ * reads them, never inflated up front, and responses are encoded with the
+ * coding preferred by {@code Accept-Encoding} once they reach
+ * {@link CompressionProperties#minResponseSize()}. Any other request coding is
+ * refused with 415 and the supported ones listed in {@code Accept-Encoding}.
+ *
+ * Streamed and asynchronous responses are completed on the async dispatch that
+ * follows the handler, which is why that dispatch is filtered too. Handlers
+ * that use servlet read and write listeners get no such dispatch: their
+ * compressed bodies are decoded once fully received and their responses are
+ * sent unencoded, so nothing is left to complete.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ContentEncodingFilter extends OncePerRequestFilter {
+
+    private static final String RESPONSE_ATTRIBUTE = ContentEncodingFilter.class.getName() + ".response";
+
+    private final CompressionProperties properties;
+
+    public ContentEncodingFilter(CompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            chain.doFilter(request, response);
+            finishIfComplete(request);
+            return;
+        }
+
+        ContentCoding requestCoding;
+        try {
+            requestCoding = ContentCoding.forContentEncoding(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        } catch (IllegalArgumentException ex) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentCoding.SUPPORTED);
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+            return;
+        }
+        HttpServletRequest decoded = requestCoding == null ? request : new DecodingRequest(request, requestCoding);
+
+        HttpServletResponse encoded = response;
+        if (properties.enabled()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            ContentCoding responseCoding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (responseCoding != null) {
+                encoded = new CompressingResponse(response, responseCoding, properties);
+                request.setAttribute(RESPONSE_ATTRIBUTE, encoded);
+            }
+        }
+
+        chain.doFilter(decoded, encoded);
+        finishIfComplete(request);
+    }
+
+    private static void finishIfComplete(HttpServletRequest request) throws IOException {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(RESPONSE_ATTRIBUTE) instanceof CompressingResponse response) {
+            request.removeAttribute(RESPONSE_ATTRIBUTE);
+            response.finish();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.parser.LLM.Data.compression;
+
+import com.github.luben.zstd.ZstdIOException;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.ZipException;
+
+/**
+ * A request whose compressed body is decoded as it is read. The decoded
+ * length is unknown up front, so the body is reported without a length and
+ * the encoding headers are hidden; handlers take their streaming, uncached
+ * path for it, exactly as for a chunked upload.
+ *
+ * A corrupt or truncated body fails the read with a 400
+ * {@link ResponseStatusException} rather than an I/O error.
+ *
+ * A decoder may need more input than has arrived, so it cannot be driven by a
+ * {@link ReadListener}. A body read with one is collected compressed as the
+ * container delivers it, without blocking, and decoded from memory as it is
+ * read once it is complete.
+ */
+class DecodingRequest extends HttpServletRequestWrapper {
+
+    private final ContentCoding coding;
+    private ServletInputStream body;
+
+    DecodingRequest(HttpServletRequest request, ContentCoding coding) {
+        super(request);
+        this.coding = coding;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (body == null) {
+            body = new DecodedInputStream(super.getInputStream());
+        }
+        return body;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return hidden(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !hidden(name))
+                .toList());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        return hidden(name) ? -1 : super.getIntHeader(name);
+    }
+
+    private static boolean hidden(String name) {
+        return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+
+    /**
+     * Returns {@code ex} unless it reports corrupt compressed data, which is
+     * thrown as a 400 instead.
+     */
+    private IOException checked(IOException ex) {
+        if (ex instanceof ZipException || ex instanceof ZstdIOException || ex instanceof EOFException) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Malformed " + coding.token() + " body: " + ex.getMessage(), ex);
+        }
+        return ex;
+    }
+
+    private final class DecodedInputStream extends ServletInputStream {
+
+        private final ServletInputStream raw;
+        private InputStream in;
+        private boolean finished;
+        private ReadListener listener;
+        private ByteArrayOutputStream compressed;
+        private boolean received;
+        private boolean signalled;
+
+        DecodedInputStream(ServletInputStream raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int b = decoder().read();
+                ended(b < 0);
+                return b;
+            } catch (IOException ex) {
+                throw checked(ex);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int n = decoder().read(b, off, len);
+                ended(n < 0);
+                return n;
+            } catch (IOException ex) {
+                throw checked(ex);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return listener == null || received && !finished;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (this.listener != null) {
+                throw new IllegalStateException("A read listener is already set");
+            }
+            this.listener = listener;
+            compressed = new ByteArrayOutputStream();
+            raw.setReadListener(new Collector());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            } else {
+                raw.close();
+            }
+        }
+
+        /**
+         * The decoder, created on the first read since it reads the coding's
+         * header: from the servlet stream, or from the collected body.
+         */
+        private InputStream decoder() throws IOException {
+            if (in == null) {
+                if (listener != null && !received) {
+                    throw new IllegalStateException("The body is not ready to be read");
+                }
+                InputStream source = listener == null ? raw : new ByteArrayInputStream(compressed.toByteArray());
+                compressed = null;
+                in = coding.decoder(source);
+            }
+            return in;
+        }
+
+        /**
+         * Records the end of the decoded body and, for a listener, calls
+         * {@link ReadListener#onAllDataRead} once on a container thread.
+         */
+        private void ended(boolean end) {
+            finished = end;
+            if (end && listener != null && !signalled) {
+                signalled = true;
+                getAsyncContext().start(() -> {
+                    try {
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException ex) {
+                        listener.onError(ex);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Collects the compressed body as the container delivers it and hands
+         * the decoded body to the listener once all of it is in.
+         */
+        private final class Collector implements ReadListener {
+
+            private final byte[] chunk = new byte[8192];
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (raw.isReady()) {
+                    int n = raw.read(chunk);
+                    if (n < 0) {
+                        return;
+                    }
+                    compressed.write(chunk, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+                received = true;
+                listener.onDataAvailable();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                listener.onError(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.parser.LLM.Data.controller;
+
+import com.parser.LLM.Data.arrow.ArrowBarWriter;
+import com.parser.LLM.Data.arrow.ArrowFormat;
+import com.parser.LLM.Data.normalize.BarSeries;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a {@link BarSeries} as an Arrow IPC stream, batch by batch.
+ * Like {@link MessagePackHttpMessageConverter} it only answers when Arrow was
+ * asked for by name.
+ */
+@Component
+class ArrowHttpMessageConverter extends AbstractHttpMessageConverter<BarSeries> {
+
+    private final ArrowFormat arrow;
+
+    ArrowHttpMessageConverter(ArrowFormat arrow) {
+        super(ResponseFormat.ARROW.mediaType());
+        this.arrow = arrow;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BarSeries.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && ResponseFormat.ARROW.mediaType().includes(mediaType)
+                && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected BarSeries readInternal(Class<? extends BarSeries> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Arrow request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(BarSeries series, HttpOutputMessage outputMessage) throws IOException {
+        try (ArrowBarWriter writer = arrow.newWriter(outputMessage.getBody())) {
+            series.replay(writer);
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.parser.LLM.Data.controller;
+
+import com.parser.LLM.Data.normalize.Intervals;
+import com.parser.LLM.Data.normalize.Precision;
+import com.parser.LLM.Data.normalize.SortOrder;
+import com.parser.LLM.Data.normalize.Timestamps;
+
+/**
+ * Query parameters accepted by the stored bars endpoint.
+ *
+ * @param interval    interval the bars were normalized at, e.g. "5m"
+ * @param from        first bar to return, "yyyy-MM-dd", "yyyy-MM-dd HH:mm" or
+ *                    "yyyy-MM-dd HH:mm:ss" in the series time zone
+ * @param to          last bar to return, in the same layouts; a date includes the whole day
+ * @param last        only the newest {@code last} bars of the range
+ * @param order       "desc" (default) or "asc"
+ * @param format      response format by name, e.g. "csv", overriding the {@code Accept} header
+ * @param precision   fraction digits for prices; trailing zeros are dropped
+ * @param significant significant digits for prices, instead of {@code precision}
+ */
+public record BarsQuery(String interval, String from, String to, Integer last, String order, String format,
+                        Integer precision, Integer significant) {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    /**
+     * {@code interval} in the compact form bars are stored under, so "5min" and
+     * "5" find the series stored as "5m".
+     */
+    public String storedInterval() {
+        String normalized = Intervals.normalize(interval);
+        if (Intervals.seconds(normalized) <= 0) {
+            throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+        return normalized;
+    }
+
+    /**
+     * Wall-clock epoch seconds of {@code from}, {@link Long#MIN_VALUE} when absent.
+     */
+    public long fromEpoch() {
+        return from == null ? Long.MIN_VALUE : parse("from", from);
+    }
+
+    /**
+     * Wall-clock epoch seconds of {@code to}, inclusive, {@link Long#MAX_VALUE} when absent.
+     */
+    public long toEpoch() {
+        if (to == null) {
+            return Long.MAX_VALUE;
+        }
+        long epoch = parse("to", to);
+        return Timestamps.hasTimeOfDay(to.trim()) ? epoch : epoch + SECONDS_PER_DAY - 1;
+    }
+
+    /**
+     * {@code last}, or 0 for the whole range.
+     */
+    public int lastBars() {
+        if (last == null) {
+            return 0;
+        }
+        if (last <= 0) {
+            throw new IllegalArgumentException("last must be positive");
+        }
+        return last;
+    }
+
+    public SortOrder sortOrder() {
+        return order == null ? SortOrder.DESC : SortOrder.parse(order);
+    }
+
+    /**
+     * Price precision as for {@link NormalizeOptions#pricePrecision()}.
+     */
+    public Precision pricePrecision() {
+        return NormalizeOptions.pricePrecision(precision, significant);
+    }
+
+    private static long parse(String name, String value) {
+        long epoch = Timestamps.parseEpochSeconds(value.trim());
+        if (epoch == Timestamps.INVALID) {
+            throw new IllegalArgumentException(name + " must be yyyy-MM-dd, yyyy-MM-dd HH:mm or yyyy-MM-dd HH:mm:ss");
+        }
+        return epoch;
+    }
+}
@@ -0,0 +1,63 @@
+package com.parser.LLM.Data.controller;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the lines of batch requests.
+ *
+ * With {@code spring.threads.virtual.enabled=true} on Java 21 or later every
+ * line gets its own virtual thread, like the request threads themselves. On
+ * Java 17, or with virtual threads off, lines share a bounded pool of platform
+ * threads. The pool is separate from the servlet and MVC async pools, so a
+ * batch waiting on its lines never holds a thread that those lines need.
+ */
+@Component
+class BatchExecutor implements DisposableBean {
+
+    private final AsyncTaskExecutor executor;
+    private final int parallelism;
+
+    BatchExecutor(BatchProperties properties, Environment environment) {
+        if (properties.parallelism() <= 0) {
+            throw new IllegalArgumentException("llm-data.batch.parallelism must be positive");
+        }
+        if (properties.threads() < 0) {
+            throw new IllegalArgumentException("llm-data.batch.threads must not be negative");
+        }
+        this.parallelism = properties.parallelism();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("batch-");
+            virtual.setVirtualThreads(true);
+            this.executor = virtual;
+        } else {
+            int threads = properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors();
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setThreadNamePrefix("batch-");
+            pool.setCorePoolSize(threads);
+            pool.setMaxPoolSize(threads);
+            pool.setDaemon(true);
+            pool.initialize();
+            this.executor = pool;
+        }
+    }
+
+    /**
+     * A fan-out for one batch response, handing results to {@code sink} in submission order.
+     */
+    <T> OrderedFanOut<T> fanOut(OrderedFanOut.Sink<T> sink) {
+        return new OrderedFanOut<>(executor, parallelism, sink);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+}
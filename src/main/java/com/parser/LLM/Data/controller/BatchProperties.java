@@ -0,0 +1,18 @@
+package com.parser.LLM.Data.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the batch endpoint ({@code llm-data.batch.*}).
+ *
+ * @param parallelism  lines of one batch normalized concurrently; results are
+ *                     still written in input order
+ * @param threads      size of the shared platform thread pool used when virtual
+ *                     threads are off or unavailable; 0 for one per processor
+ */
+@ConfigurationProperties("llm-data.batch")
+public record BatchProperties(
+        @DefaultValue("8") int parallelism,
+        @DefaultValue("0") int threads) {
+}
@@ -1,218 +1,553 @@
 package com.parser.LLM.Data.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.LLM.Data.arrow.ArrowBarWriter;
+import com.parser.LLM.Data.arrow.ArrowFormat;
+import com.parser.LLM.Data.cache.ResponseCache;
+import com.parser.LLM.Data.metrics.NormalizeMetrics;
+import com.parser.LLM.Data.metrics.NormalizeTrace;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.BarWriter;
+import com.parser.LLM.Data.normalize.Downsampler;
+import com.parser.LLM.Data.normalize.JsonBarWriter;
+import com.parser.LLM.Data.normalize.Precision;
+import com.parser.LLM.Data.normalize.Resampler;
+import com.parser.LLM.Data.normalize.SortOrder;
+import com.parser.LLM.Data.normalize.TextBarWriter;
+import com.parser.LLM.Data.normalize.TokenEstimator;
+import com.parser.LLM.Data.provider.ProviderRegistry;
+import com.parser.LLM.Data.store.BarStore;
+import com.parser.LLM.Data.store.StoredSeries;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Locale;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/llm-data")
 public class LlmDataController {
 
-    private static final DateTimeFormatter INPUT_TS_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.US);
-    private static final DateTimeFormatter OUTPUT_TIME_FORMAT =
-            DateTimeFormatter.ofPattern("HH:mm", Locale.US);
+    static final String TOKEN_ESTIMATE_HEADER = "X-Token-Estimate";
+
+    private final ObjectMapper objectMapper;
+    private final Map<ResponseFormat, ObjectMapper> mappers = new EnumMap<>(ResponseFormat.class);
+    private final ProviderRegistry providers;
+    private final ResponseCache cache;
+    private final NormalizeMetrics metrics;
+    private final ArrowFormat arrow;
+    private final BatchExecutor batchExecutor;
+    private final NonBlockingNormalizer nonBlocking;
+    private final BarStore store;
+
+    public LlmDataController(ObjectMapper objectMapper, ProviderRegistry providers, ResponseCache cache,
+                             NormalizeMetrics metrics, ArrowFormat arrow, BatchExecutor batchExecutor,
+                             NonBlockingNormalizer nonBlocking, BarStore store) {
+        this.objectMapper = objectMapper;
+        this.providers = providers;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.arrow = arrow;
+        this.batchExecutor = batchExecutor;
+        this.nonBlocking = nonBlocking;
+        this.store = store;
+        for (ResponseFormat format : ResponseFormat.values()) {
+            ObjectMapper mapper = format.mapper(objectMapper);
+            if (mapper != null) {
+                mappers.put(format, mapper);
+            }
+        }
+    }
 
     /**
      * Accepts raw JSON from market data providers and returns
      * a compact, LLM-friendly representation.
      *
-     * Currently supports Alpha Vantage "Time Series" payloads like the example provided.
+     * Supports Alpha Vantage, Polygon, Binance, Yahoo chart and Finnhub candle payloads;
+     * the provider is detected from the first tokens unless {@code provider} is given.
+     * The body is consumed with a streaming parser, so it is never bound into a map tree.
+     * Bars are returned newest first unless {@code order=asc} is given, and
+     * {@code resample=1h} (or any coarser interval) aggregates them first.
+     * {@code maxRows} and {@code maxTokens} shrink the series with LTTB, and the
+     * approximate token count of the response is returned in {@code X-Token-Estimate}.
+     *
+     * Bodies up to {@code llm-data.cache.max-request-size} are buffered so that a
+     * resubmitted payload is answered from the {@link ResponseCache}. With
+     * {@code llm-data.store.enabled} the decoded bars are also added to the
+     * {@link BarStore}; streamed responses pass their bars through and are not stored.
+     *
+     * {@code Accept: application/cbor} or {@code application/x-msgpack} returns the
+     * same structure in that binary encoding; the token estimate is only sent for JSON
+     * and the text formats, which are counted at their own rate.
+     * {@code Accept: application/vnd.apache.arrow.stream} returns Arrow record
+     * batches; those responses are meant for bulk loads and are never cached.
+     * {@code format=csv}, {@code tsv} or {@code table} returns one text line per bar
+     * for prompts. Prices are written in their shortest form, or rounded to
+     * {@code precision} fraction digits or {@code significant} digits when given.
+     * {@code encoding=delta} writes prices as whole ticks relative to the previous
+     * close, see {@link com.parser.LLM.Data.normalize.DeltaBarsSerializer}.
+     *
+     * With {@code stream=true} the request is handled by {@link #normalizeStreaming}.
      */
-    @PostMapping("/normalize")
-    public ResponseEntity<Map<String, Object>> normalize(@RequestBody Map<String, Object> payload) {
+    @PostMapping(value = "/normalize", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseFormat.MSGPACK_VALUE,
+                    ArrowBarWriter.MEDIA_TYPE, ResponseFormat.CSV_VALUE, ResponseFormat.TSV_VALUE,
+                    ResponseFormat.TABLE_VALUE})
+    public ResponseEntity<?> normalize(HttpServletRequest request, NormalizeOptions options) throws IOException {
         try {
-            Map<String, Object> responseBody = normalizeAlphaVantageTimeSeries(payload);
-            return ResponseEntity.ok(responseBody);
+            long contentLength = request.getContentLengthLong();
+            ResponseFormat format = responseFormat(options, request.getHeader(HttpHeaders.ACCEPT));
+            if (format == ResponseFormat.ARROW || !cache.accepts(contentLength)) {
+                NormalizeTrace trace = new NormalizeTrace();
+                trace.requestBytes(contentLength);
+                try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+                    BarSeries series = normalizePayload(parser, options, options.sortOrder(), format, trace);
+                    if (format != ResponseFormat.ARROW) {
+                        // Rendered like a cached response so both report the same token estimate
+                        byte[] rendered = render(series, format, options);
+                        trace.lap(NormalizeTrace.Stage.SERIALIZE);
+                        trace.responseBytes(rendered.length);
+                        metrics.record(trace);
+                        return bytesResponse(format, rendered);
+                    }
+                    metrics.record(trace);
+                    return ResponseEntity.ok().contentType(format.mediaType()).body(series);
+                }
+            }
+
+            byte[] body = request.getInputStream().readNBytes((int) contentLength);
+            return bytesResponse(format, normalizeCached(body, body.length, options, options.sortOrder(), format));
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON: " + ex.getOriginalMessage(), ex);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> normalizeAlphaVantageTimeSeries(Map<String, Object> payload) {
-        Object metaObj = payload.get("Meta Data");
-        if (!(metaObj instanceof Map<?, ?> meta)) {
-            throw new IllegalArgumentException("Unsupported JSON shape: missing 'Meta Data' object");
+    /**
+     * Writes the header and then each bar as soon as it is decoded, in provider
+     * order, so neither the whole series nor the whole response is held.
+     *
+     * Problems found before the header is written (unknown shape, missing
+     * symbol) still produce a 400. Once bytes are out the status can no longer
+     * change, so a later failure aborts the response and leaves the document
+     * unterminated rather than closing it into a document that looks complete.
+     * Options that need the whole series are rejected. The response format is
+     * negotiated as for {@link #normalize}.
+     */
+    @PostMapping(value = "/normalize", consumes = MediaType.APPLICATION_JSON_VALUE, params = "stream=true",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseFormat.MSGPACK_VALUE,
+                    ArrowBarWriter.MEDIA_TYPE, ResponseFormat.CSV_VALUE, ResponseFormat.TSV_VALUE,
+                    ResponseFormat.TABLE_VALUE})
+    public ResponseEntity<StreamingResponseBody> normalizeStreaming(HttpServletRequest request,
+                                                                    NormalizeOptions options) throws IOException {
+        if (options.needsWholeSeries()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "stream=true writes bars in provider order and cannot be combined with order, resample, maxRows, maxTokens or encoding");
         }
-
-        String symbol = stringValue(meta.get("2. Symbol"));
-        String intervalRaw = stringValue(meta.get("4. Interval"));
-        String timeZone = stringValue(meta.get("6. Time Zone"));
-
-        if (symbol == null || intervalRaw == null || timeZone == null) {
-            throw new IllegalArgumentException("Unsupported JSON shape: missing symbol, interval or time zone fields");
+        ResponseFormat format;
+        try {
+            format = responseFormat(options, request.getHeader(HttpHeaders.ACCEPT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
         }
+        InputStream body = request.getInputStream();
+        long contentLength = request.getContentLengthLong();
+
+        StreamingResponseBody stream = out -> {
+            NormalizeTrace trace = new NormalizeTrace();
+            trace.requestBytes(contentLength);
+            try (JsonParser parser = objectMapper.getFactory().createParser(body);
+                 BarWriter writer = openWriter(format, options.pricePrecision(), out)) {
+                BarSeries series = new BarSeries();
+                series.drainTo(writer);
+                try {
+                    providers.decode(parser, options.provider(), options.hints(), series);
+                } catch (IllegalArgumentException ex) {
+                    if (writer.started()) {
+                        throw ex;
+                    }
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+                } catch (JsonProcessingException ex) {
+                    if (writer.started()) {
+                        throw ex;
+                    }
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON: " + ex.getOriginalMessage(), ex);
+                }
+                writer.finish();
+
+                // Decoding and writing are interleaved, so both count as parse time
+                trace.lap(NormalizeTrace.Stage.PARSE);
+                trace.decoded(series);
+                trace.bars(writer.bars());
+                metrics.record(trace);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(format.mediaType()).body(stream);
+    }
 
-        String interval = normalizeInterval(intervalRaw);
-
-        String seriesKey = findTimeSeriesKey(payload);
-        if (seriesKey == null) {
-            throw new IllegalArgumentException("Unsupported JSON shape: no 'Time Series' key found");
+    /**
+     * Non-blocking form of {@link #normalizeStreaming}: NDJSON rows, the header
+     * {@code {"s", "i", "tz"}} first and then one bar array per line, in provider
+     * order. See {@link NonBlockingNormalizer}.
+     *
+     * The body is read with a servlet {@code ReadListener} and the rows written
+     * with a {@code WriteListener}, so no container thread waits on a slow
+     * upload or a slow reader. Options that need the whole series are rejected,
+     * as for {@code stream=true}.
+     */
+    @PostMapping(value = "/normalize/reactive", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void normalizeReactive(HttpServletRequest request, HttpServletResponse response, NormalizeOptions options)
+            throws IOException {
+        if (options.needsWholeSeries() || options.format() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Non-blocking rows are NDJSON in provider order and cannot be combined with order, resample, maxRows, maxTokens, encoding or format");
         }
-
-        Object seriesObj = payload.get(seriesKey);
-        if (!(seriesObj instanceof Map<?, ?> series)) {
-            throw new IllegalArgumentException("Unsupported JSON shape: time series is not an object");
+        try {
+            options.pricePrecision();
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
         }
+        nonBlocking.normalize(request, response, options);
+    }
 
-        List<String> timestamps = new ArrayList<>();
-        for (Object key : series.keySet()) {
-            if (key != null) {
-                timestamps.add(key.toString());
-            }
+    /**
+     * Normalizes many provider payloads in one call.
+     *
+     * The request holds one payload per line (NDJSON) and the response streams one
+     * normalized result per line, in input order, as soon as each line is done. A
+     * line that cannot be normalized yields {@code {"line": n, "error": "..."}}
+     * instead of failing the whole batch. Query parameters apply to every line;
+     * the provider is detected per line. Up to {@code llm-data.batch.parallelism}
+     * lines are normalized concurrently on the {@link BatchExecutor}.
+     *
+     * {@code Accept: application/vnd.apache.arrow.stream} returns all lines as one
+     * Arrow stream instead, see {@link ArrowBarWriter#lines}.
+     */
+    @PostMapping(value = "/normalize/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, ArrowBarWriter.MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> normalizeBatch(InputStream body, NormalizeOptions options,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                                String accept) {
+        SortOrder sortOrder;
+        ResponseFormat format;
+        try {
+            sortOrder = options.sortOrder();
+            format = responseFormat(options, accept);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+        if (format != ResponseFormat.JSON && format != ResponseFormat.ARROW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch responses are NDJSON or Arrow");
+        }
+        if (format == ResponseFormat.ARROW) {
+            return ResponseEntity.ok()
+                    .contentType(ResponseFormat.ARROW.mediaType())
+                    .body(normalizeBatchToArrow(body, options, sortOrder));
         }
 
-        // Sort newest first to roughly match provider output
-        timestamps.sort(Comparator.reverseOrder());
-
-        List<List<Object>> dataRows = new ArrayList<>();
-
-        for (String ts : timestamps) {
-            Object barObj = series.get(ts);
-            if (!(barObj instanceof Map<?, ?> bar)) {
-                continue;
+        StreamingResponseBody stream = out -> {
+            NdjsonLineReader lines = new NdjsonLineReader(body);
+            try (OrderedFanOut<byte[]> fanOut = batchExecutor.fanOut(normalized -> {
+                out.write(normalized);
+                out.write('\n');
+                out.flush();
+            })) {
+                while (lines.next()) {
+                    // The reader reuses its buffer, so the line is copied before it is handed off
+                    byte[] line = Arrays.copyOf(lines.buffer(), lines.length());
+                    int lineNumber = lines.lineNumber();
+                    fanOut.submit(() -> normalizeLine(line, lineNumber, options, sortOrder));
+                }
+                fanOut.finish();
             }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
 
-            String timeLabel = toTimeLabel(ts);
-
-            Double open = toDouble(bar.get("1. open"));
-            Double high = toDouble(bar.get("2. high"));
-            Double low = toDouble(bar.get("3. low"));
-            Double close = toDouble(bar.get("4. close"));
-            Long volume = toLong(bar.get("5. volume"));
-
-            if (open == null || high == null || low == null || close == null || volume == null) {
-                // Skip malformed rows instead of failing the whole request
-                continue;
+    /**
+     * Bars kept by the {@link BarStore} for {@code symbol} at {@code interval},
+     * optionally limited to {@code from}..{@code to} and to the newest {@code last}
+     * of those, newest first unless {@code order=asc}. Formats and price precision
+     * are negotiated as for {@link #normalize}; a symbol with nothing stored is a 404.
+     *
+     * Both ends of the range are found by binary search over the segment index
+     * and each bar is written straight from the mapped segment, so nothing is
+     * decoded into a series and a "last N" query costs little more than writing
+     * N bars. There is no upload to wait for, so the response is written on the
+     * request thread.
+     */
+    @GetMapping(value = "/bars/{symbol}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseFormat.MSGPACK_VALUE,
+                    ArrowBarWriter.MEDIA_TYPE, ResponseFormat.CSV_VALUE, ResponseFormat.TSV_VALUE,
+                    ResponseFormat.TABLE_VALUE})
+    public void bars(@PathVariable String symbol, BarsQuery query,
+                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                     HttpServletResponse response) throws IOException {
+        if (!store.enabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The bar store is disabled");
+        }
+        if (query.interval() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "interval is required");
+        }
+        String interval;
+        long from;
+        long to;
+        int last;
+        SortOrder sortOrder;
+        Precision precision;
+        ResponseFormat format;
+        try {
+            interval = query.storedInterval();
+            from = query.fromEpoch();
+            to = query.toEpoch();
+            last = query.lastBars();
+            sortOrder = query.sortOrder();
+            precision = query.pricePrecision();
+            format = ResponseFormat.select(query.format(), accept);
+            if (!precision.shortest() && format == ResponseFormat.ARROW) {
+                throw new IllegalArgumentException("precision and significant do not apply to arrow");
             }
-
-            List<Object> row = new ArrayList<>(6);
-            row.add(timeLabel);
-            row.add(open);
-            row.add(high);
-            row.add(low);
-            row.add(close);
-            row.add(volume);
-
-            dataRows.add(row);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+        StoredSeries stored = store.find(symbol, interval);
+        if (stored == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No bars stored for " + symbol + " at " + interval);
         }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("s", symbol);
-        result.put("i", interval);
-        result.put("tz", timeZone);
-        result.put("d", dataRows);
-
-        return result;
+        response.setContentType(format.mediaType().toString());
+        try (BarWriter writer = openWriter(format, precision, response.getOutputStream())) {
+            stored.replay(from, to, last, sortOrder, writer);
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
     }
 
-    private String findTimeSeriesKey(Map<String, Object> payload) {
-        for (String key : payload.keySet()) {
-            if (key != null && key.startsWith("Time Series")) {
-                return key;
+    /**
+     * One line of an NDJSON batch as JSON, or its {@code {"line", "error"}} object.
+     */
+    private byte[] normalizeLine(byte[] line, int lineNumber, NormalizeOptions options, SortOrder sortOrder)
+            throws IOException {
+        try {
+            if (cache.accepts(line.length)) {
+                return normalizeCached(line, line.length, options, sortOrder, ResponseFormat.JSON);
+            }
+            NormalizeTrace trace = new NormalizeTrace();
+            trace.requestBytes(line.length);
+            byte[] normalized;
+            try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+                normalized = render(normalizePayload(parser, options, sortOrder, ResponseFormat.JSON, trace), ResponseFormat.JSON,
+                        options);
             }
+            trace.lap(NormalizeTrace.Stage.SERIALIZE);
+            metrics.record(trace);
+            return normalized;
+        } catch (IllegalArgumentException ex) {
+            return objectMapper.writeValueAsBytes(new LineError(lineNumber, ex.getMessage()));
+        } catch (JsonProcessingException ex) {
+            return objectMapper.writeValueAsBytes(new LineError(lineNumber, "Malformed JSON: " + ex.getOriginalMessage()));
         }
-        return null;
     }
 
-    private String stringValue(Object value) {
-        return value == null ? null : value.toString();
+    /**
+     * Batch lines into one Arrow stream, flushed a record batch at a time. Lines
+     * are decoded concurrently and written in input order by this thread, since
+     * the writer is not thread-safe. They are not cached here since the cache
+     * holds JSON.
+     */
+    private StreamingResponseBody normalizeBatchToArrow(InputStream body, NormalizeOptions options,
+                                                        SortOrder sortOrder) {
+        return out -> {
+            NdjsonLineReader lines = new NdjsonLineReader(body);
+            try (ArrowBarWriter writer = arrow.newLineWriter(out);
+                 OrderedFanOut<ArrowLine> fanOut = batchExecutor.fanOut(decoded -> {
+                     if (decoded.error() != null) {
+                         writer.error(decoded.line(), decoded.error());
+                     } else {
+                         writer.line(decoded.line());
+                         decoded.series().replay(writer);
+                     }
+                 })) {
+                while (lines.next()) {
+                    byte[] line = Arrays.copyOf(lines.buffer(), lines.length());
+                    int lineNumber = lines.lineNumber();
+                    fanOut.submit(() -> decodeLine(line, lineNumber, options, sortOrder));
+                }
+                fanOut.finish();
+                writer.finish();
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
     }
 
-    private String normalizeInterval(String raw) {
-        String v = raw.trim();
-        String lower = v.toLowerCase(Locale.US);
-
-        if (lower.endsWith("min")) {
-            // "5min" -> "5m" (only replace the suffix)
-            return lower.substring(0, lower.length() - 3) + "m";
+    private ArrowLine decodeLine(byte[] line, int lineNumber, NormalizeOptions options, SortOrder sortOrder)
+            throws IOException {
+        NormalizeTrace trace = new NormalizeTrace();
+        trace.requestBytes(line.length);
+        try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+            BarSeries series = normalizePayload(parser, options, sortOrder, ResponseFormat.ARROW, trace);
+            // Written later by the response thread, so serialization time is not part of this trace
+            metrics.record(trace);
+            return new ArrowLine(lineNumber, series, null);
+        } catch (IllegalArgumentException ex) {
+            return new ArrowLine(lineNumber, null, ex.getMessage());
+        } catch (JsonProcessingException ex) {
+            return new ArrowLine(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
         }
+    }
 
-        // Simple fallbacks for some common labels
-        if (lower.contains("daily")) {
-            return "1d";
-        }
-        if (lower.contains("weekly")) {
-            return "1w";
-        }
-        if (lower.contains("monthly")) {
-            return "1mo";
+    /**
+     * Serves the normalized bytes for {@code body[0, length)} from the cache,
+     * normalizing and caching them on a miss. Failures are not cached.
+     */
+    private byte[] normalizeCached(byte[] body, int length, NormalizeOptions options, SortOrder sortOrder,
+                                   ResponseFormat format) throws IOException {
+        ResponseCache.Key key = cache.key(body, 0, length, new CacheVariant(options, format));
+        byte[] normalized = cache.get(key);
+        if (normalized == null) {
+            NormalizeTrace trace = new NormalizeTrace();
+            trace.requestBytes(length);
+            try (JsonParser parser = objectMapper.getFactory().createParser(body, 0, length)) {
+                normalized = render(normalizePayload(parser, options, sortOrder, format, trace), format, options);
+            }
+            trace.lap(NormalizeTrace.Stage.SERIALIZE);
+            trace.responseBytes(normalized.length);
+            metrics.record(trace);
+            cache.put(key, normalized);
         }
-
-        // Default: return as-is
-        return v;
+        return normalized;
     }
 
-    private String toTimeLabel(String ts) {
-        try {
-            LocalDateTime dateTime = LocalDateTime.parse(ts, INPUT_TS_FORMAT);
-            return dateTime.toLocalTime().format(OUTPUT_TIME_FORMAT);
-        } catch (DateTimeParseException ex) {
-            // Fallback: best-effort extraction of "HH:mm" from flexible time parts
-            int spaceIdx = ts.indexOf(' ');
-            if (spaceIdx > 0 && spaceIdx + 1 < ts.length()) {
-                String timePart = ts.substring(spaceIdx + 1);
-
-                int firstColon = timePart.indexOf(':');
-                if (firstColon < 0) {
-                    // No colon at all, give back the time part as-is
-                    return timePart;
-                }
+    private BarSeries normalizePayload(JsonParser parser, NormalizeOptions options, SortOrder sortOrder,
+                                       ResponseFormat format, NormalizeTrace trace) throws IOException {
+        BarSeries series = providers.decode(parser, options.provider(), options.hints());
+        trace.lap(NormalizeTrace.Stage.PARSE);
+        trace.decoded(series);
+
+        if (store.enabled()) {
+            // The store takes bars oldest first, as the transforms below do
+            series.order(SortOrder.ASC);
+            trace.lap(NormalizeTrace.Stage.SORT);
+            store.append(series);
+            trace.lap(NormalizeTrace.Stage.STORE);
+        }
 
-                int secondColon = timePart.indexOf(':', firstColon + 1);
-                if (secondColon < 0) {
-                    // Format is likely "HH:mm" -> return whole component
-                    return timePart;
-                } else {
-                    // Format is likely "HH:mm:ss" -> trim to "HH:mm"
-                    return timePart.substring(0, secondColon);
-                }
+        boolean downsample = options.maxRows() != null || options.maxTokens() != null;
+        if (options.resample() != null || downsample) {
+            // Both transforms work oldest first; ordering up front keeps that cost under "sort"
+            series.order(SortOrder.ASC);
+            trace.lap(NormalizeTrace.Stage.SORT);
+            if (options.resample() != null) {
+                series = Resampler.resample(series, options.resample());
             }
-            return ts;
+            if (downsample) {
+                series = Downsampler.lttb(series, options.rowBudget(series, format.textFormat()));
+            }
+            trace.lap(NormalizeTrace.Stage.TRANSFORM);
         }
+
+        series.order(sortOrder);
+        trace.lap(NormalizeTrace.Stage.SORT);
+        trace.bars(series.size());
+        return series;
     }
 
-    private Double toDouble(Object value) {
-        if (value == null) {
-            return null;
+    /**
+     * The requested format, checking that {@code encoding=delta} is only given
+     * for a Jackson format and a price precision for neither Arrow nor delta.
+     */
+    private ResponseFormat responseFormat(NormalizeOptions options, String accept) {
+        ResponseFormat format = ResponseFormat.select(options.format(), accept);
+        boolean delta = options.deltaEncoding();
+        if (delta && !mappers.containsKey(format)) {
+            throw new IllegalArgumentException("encoding=delta only applies to json, cbor and msgpack");
         }
-        if (value instanceof Number n) {
-            return n.doubleValue();
+        if (!options.pricePrecision().shortest() && (delta || format == ResponseFormat.ARROW)) {
+            throw new IllegalArgumentException("precision and significant do not apply to arrow or encoding=delta");
         }
-        try {
-            return Double.parseDouble(value.toString());
-        } catch (NumberFormatException ex) {
-            return null;
+        return format;
+    }
+
+    /**
+     * Encodes a finished series for any format except Arrow.
+     */
+    private byte[] render(BarSeries series, ResponseFormat format, NormalizeOptions options) throws IOException {
+        if (format.textFormat() == null) {
+            return mappers.get(format).writer()
+                    .withAttribute(Precision.class, options.pricePrecision())
+                    .writeValueAsBytes(options.encode(series));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BarWriter writer = openWriter(format, options.pricePrecision(), out)) {
+            series.replay(writer);
+            writer.finish();
         }
+        return out.toByteArray();
     }
 
-    private Long toLong(Object value) {
-        if (value == null) {
-            return null;
+    private BarWriter openWriter(ResponseFormat format, Precision precision, OutputStream out)
+            throws IOException {
+        if (format == ResponseFormat.ARROW) {
+            return arrow.newWriter(out);
         }
-        if (value instanceof Number n) {
-            return n.longValue();
+        if (format.textFormat() != null) {
+            return new TextBarWriter(out, format.textFormat(), precision);
         }
-        try {
-            return Long.parseLong(value.toString());
-        } catch (NumberFormatException ex) {
-            return null;
+        return new JsonBarWriter(mappers.get(format).getFactory().createGenerator(out), precision);
+    }
+
+    private static ResponseEntity<byte[]> bytesResponse(ResponseFormat format, byte[] body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(format.mediaType());
+        if (format.textual()) {
+            response.header(TOKEN_ESTIMATE_HEADER,
+                    Long.toString(TokenEstimator.fromLength(format.textFormat(), body.length)));
         }
+        return response.body(body);
     }
-}
 
+    /**
+     * Everything besides the body that shapes the cached bytes.
+     */
+    private record CacheVariant(NormalizeOptions options, ResponseFormat format) {
+    }
+
+    /**
+     * Written in place of a batch line that could not be normalized.
+     */
+    private record LineError(int line, String error) {
+    }
+
+    /**
+     * A decoded batch line waiting for its turn in the Arrow stream.
+     */
+    private record ArrowLine(int line, BarSeries series, String error) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.parser.LLM.Data.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes {@code application/x-msgpack} bodies. Spring Boot picks up converter
+ * beans next to its defaults, which already cover CBOR once the Jackson CBOR
+ * module is on the classpath.
+ */
+@Component
+class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+        super(ResponseFormat.MSGPACK.mapper(objectMapper), ResponseFormat.MSGPACK.mediaType());
+    }
+
+    /**
+     * Only writes when MessagePack was asked for by name. Custom converters are
+     * consulted before the defaults, so accepting wildcards here would turn every
+     * {@code Accept: *}{@code /*} response into MessagePack, and accepting
+     * {@code byte[]} would wrap already encoded cache entries a second time.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && ResponseFormat.MSGPACK.mediaType().includes(mediaType)
+                && clazz != byte[].class && super.canWrite(clazz, mediaType);
+    }
+}
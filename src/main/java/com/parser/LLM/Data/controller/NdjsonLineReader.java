@@ -0,0 +1,112 @@
+package com.parser.LLM.Data.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits a newline-delimited stream into lines without decoding them, reusing
+ * one growable buffer. Blank lines are skipped but still counted, so
+ * {@link #lineNumber()} matches the line numbers of the uploaded file.
+ */
+final class NdjsonLineReader {
+
+    private final InputStream in;
+    private final byte[] chunk = new byte[16 * 1024];
+    private int chunkPos;
+    private int chunkLen;
+    private boolean eof;
+
+    private byte[] line = new byte[16 * 1024];
+    private int lineLength;
+    private int lineNumber;
+
+    NdjsonLineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Advances to the next non-blank line, returning {@code false} at end of stream.
+     */
+    boolean next() throws IOException {
+        while (readLine()) {
+            if (!isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    byte[] buffer() {
+        return line;
+    }
+
+    int length() {
+        return lineLength;
+    }
+
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (chunkPos == chunkLen) {
+                if (eof || !fill()) {
+                    if (!readAny) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            readAny = true;
+            int start = chunkPos;
+            while (chunkPos < chunkLen && chunk[chunkPos] != '\n') {
+                chunkPos++;
+            }
+            append(start, chunkPos - start);
+            if (chunkPos < chunkLen) {
+                // Consume the newline itself
+                chunkPos++;
+                break;
+            }
+        }
+
+        lineNumber++;
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(chunk);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        chunkPos = 0;
+        chunkLen = n;
+        return true;
+    }
+
+    private void append(int from, int count) {
+        if (lineLength + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+        }
+        System.arraycopy(chunk, from, line, lineLength, count);
+        lineLength += count;
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.parser.LLM.Data.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.LLM.Data.metrics.NormalizeMetrics;
+import com.parser.LLM.Data.metrics.NormalizeTrace;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.JsonRowEncoder;
+import com.parser.LLM.Data.provider.ChunkedDecoder;
+import com.parser.LLM.Data.provider.ProviderRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Normalizes a request body into NDJSON rows without holding a container
+ * thread while the body arrives: the header {@code {"s", "i", "tz"}}, then one
+ * {@code [label, open, high, low, close, volume]} array per bar in provider
+ * order.
+ *
+ * The request is put in async mode and read with a {@link ReadListener}. Every
+ * chunk the container has ready is pushed through a {@link ChunkedDecoder},
+ * which never waits for input, and the rows it completes are written with a
+ * {@link WriteListener}. Reading pauses while the client is not taking rows, so
+ * neither the body nor the response is held in full. Decoding uses the same
+ * provider adapters as the blocking endpoints.
+ */
+@Component
+class NonBlockingNormalizer {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final JsonFactory factory;
+    private final ProviderRegistry providers;
+    private final NormalizeMetrics metrics;
+
+    NonBlockingNormalizer(ObjectMapper objectMapper, ProviderRegistry providers, NormalizeMetrics metrics) {
+        this.factory = objectMapper.getFactory();
+        this.providers = providers;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts async processing of {@code request} and returns; the listeners
+     * complete the response. Problems found before any row reaches the client
+     * (unknown shape, malformed JSON) answer 400; once rows are out, the same
+     * error drops the connection.
+     */
+    void normalize(HttpServletRequest request, HttpServletResponse response, NormalizeOptions options)
+            throws IOException {
+        Exchange exchange = new Exchange(response, options, request.getContentLengthLong());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exchange.start(request);
+    }
+
+    private static String message(Exception ex) {
+        if (ex instanceof ResponseStatusException status) {
+            return status.getReason();
+        }
+        if (ex instanceof JsonProcessingException json) {
+            return "Malformed JSON: " + json.getOriginalMessage();
+        }
+        return ex.getMessage();
+    }
+
+    /**
+     * Decoding and writing state for one request. Container callbacks for the
+     * two sides may overlap, so they take turns on the exchange.
+     */
+    private final class Exchange implements ReadListener, WriteListener, AsyncListener {
+
+        private final NormalizeTrace trace = new NormalizeTrace();
+        private final BarSeries series = new BarSeries();
+        private final Deque<byte[]> rows = new ArrayDeque<>();
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private final HttpServletResponse response;
+        private final JsonRowEncoder encoder;
+        private final ChunkedDecoder decoder;
+        private AsyncContext async;
+        private ServletInputStream in;
+        private ServletOutputStream out;
+        private boolean unflushed;
+        private boolean decoded;
+        private boolean completed;
+
+        Exchange(HttpServletResponse response, NormalizeOptions options, long contentLength) throws IOException {
+            this.response = response;
+            trace.requestBytes(contentLength);
+            encoder = new JsonRowEncoder(factory, options.pricePrecision(), rows::add);
+            series.drainTo(encoder);
+            decoder = providers.newChunkedDecoder(factory, options.provider(), options.hints(), series);
+        }
+
+        void start(HttpServletRequest request) throws IOException {
+            async = request.startAsync(request, response);
+            async.addListener(this);
+            in = request.getInputStream();
+            out = response.getOutputStream();
+            out.setWriteListener(this);
+            in.setReadListener(this);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            // The client went away; the container completes the request and onComplete cleans up
+        }
+
+        /**
+         * Writes pending rows while the client takes them and decodes the next
+         * chunk while the container has one ready. Returns as soon as either
+         * side would block; that side's listener calls back in.
+         */
+        private synchronized void pump() throws IOException {
+            try {
+                while (!completed && writeRows()) {
+                    if (decoded) {
+                        completed = true;
+                        async.complete();
+                    } else if (in.isFinished()) {
+                        finish();
+                    } else if (in.isReady()) {
+                        int n = in.read(chunk);
+                        if (n < 0) {
+                            finish();
+                        } else {
+                            decoder.feed(chunk, 0, n);
+                        }
+                    } else {
+                        // Let the rows decoded so far reach the client while the body trickles in
+                        if (unflushed && out.isReady()) {
+                            unflushed = false;
+                            out.flush();
+                        }
+                        return;
+                    }
+                }
+            } catch (IllegalArgumentException | JsonProcessingException | ResponseStatusException ex) {
+                reject(ex);
+            }
+        }
+
+        /**
+         * Writes pending rows, returning {@code false} when the client is not
+         * ready for the next one.
+         */
+        private boolean writeRows() throws IOException {
+            for (byte[] row = rows.peek(); row != null; row = rows.peek()) {
+                if (!out.isReady()) {
+                    return false;
+                }
+                out.write(row);
+                rows.poll();
+                unflushed = true;
+            }
+            return true;
+        }
+
+        /**
+         * Completes the series after the last chunk, queueing the rows still
+         * pending, including the header when the payload only named it at the end.
+         */
+        private void finish() throws IOException {
+            decoder.finish();
+            // Decoding and writing are interleaved, so both count as parse time
+            trace.lap(NormalizeTrace.Stage.PARSE);
+            trace.decoded(series);
+            trace.bars(encoder.bars());
+            metrics.record(trace);
+            decoded = true;
+        }
+
+        private void reject(Exception ex) throws IOException {
+            if (response.isCommitted()) {
+                // Failing the callback makes the container drop the connection mid-response
+                throw ex instanceof IOException io ? io : new IOException(message(ex), ex);
+            }
+            rows.clear();
+            // The error page picks its own content type
+            response.setContentType(null);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, message(ex));
+            completed = true;
+            async.complete();
+        }
+
+        @Override
+        public synchronized void onComplete(AsyncEvent event) throws IOException {
+            completed = true;
+            decoder.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.parser.LLM.Data.controller;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DeltaBars;
+import com.parser.LLM.Data.normalize.Downsampler;
+import com.parser.LLM.Data.normalize.Precision;
+import com.parser.LLM.Data.normalize.SortOrder;
+import com.parser.LLM.Data.normalize.TextFormat;
+import com.parser.LLM.Data.normalize.TickSize;
+import com.parser.LLM.Data.normalize.TokenEstimator;
+import com.parser.LLM.Data.provider.ProviderHints;
+
+/**
+ * Query parameters accepted by the normalize endpoints.
+ *
+ * @param provider    provider id to skip detection, e.g. "binance"
+ * @param symbol      symbol for payloads that do not carry one
+ * @param interval    interval for payloads that do not carry one
+ * @param tz          time zone to render UTC-stamped payloads in
+ * @param order       "desc" (default) or "asc"
+ * @param resample    coarser interval to aggregate the bars into, e.g. "15m", "1h" or "1d"
+ * @param maxRows     upper bound on the returned bars, enforced by LTTB downsampling
+ * @param maxTokens   approximate token budget for the response, enforced the same way
+ * @param stream      write bars as they are decoded, in provider order
+ * @param format      response format by name, e.g. "csv", overriding the {@code Accept} header
+ * @param precision   fraction digits for prices; trailing zeros are dropped
+ * @param significant significant digits for prices, instead of {@code precision}
+ * @param encoding    "delta" to write prices as whole ticks relative to the previous close
+ * @param tick        tick size for the delta encoding, e.g. "0.01"; inferred when absent
+ */
+public record NormalizeOptions(String provider, String symbol, String interval, String tz, String order,
+                               String resample, Integer maxRows, Integer maxTokens, Boolean stream,
+                               String format, Integer precision, Integer significant, String encoding,
+                               String tick) {
+
+    public ProviderHints hints() {
+        return new ProviderHints(symbol, interval, tz);
+    }
+
+    /**
+     * Row budget implied by {@code maxRows} and {@code maxTokens} for this series
+     * written as {@code textFormat}, or as JSON when it is {@code null}, or -1 when
+     * neither is given. A token budget too small for any useful shape still keeps
+     * {@link Downsampler#MIN_ROWS} bars.
+     */
+    public int rowBudget(BarSeries series, TextFormat textFormat) {
+        int budget = -1;
+        if (maxRows != null) {
+            budget = maxRows;
+        }
+        if (maxTokens != null) {
+            if (maxTokens <= 0) {
+                throw new IllegalArgumentException("maxTokens must be positive");
+            }
+            int fitting = Math.max(Downsampler.MIN_ROWS,
+                    TokenEstimator.rowsWithin(series, maxTokens, pricePrecision(), textFormat));
+            budget = budget < 0 ? fitting : Math.min(budget, fitting);
+        }
+        return budget;
+    }
+
+    /**
+     * Whether any option needs the whole series before the first bar can be written.
+     */
+    public boolean needsWholeSeries() {
+        return order != null || resample != null || maxRows != null || maxTokens != null || encoding != null;
+    }
+
+    /**
+     * Whether prices are written in the delta encoding, see {@link DeltaBars}.
+     */
+    public boolean deltaEncoding() {
+        if (encoding == null || encoding.equalsIgnoreCase("plain")) {
+            if (tick != null) {
+                throw new IllegalArgumentException("tick only applies to encoding=delta");
+            }
+            return false;
+        }
+        if (encoding.equalsIgnoreCase("delta")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported encoding '" + encoding + "': expected 'plain' or 'delta'");
+    }
+
+    /**
+     * The response body for {@code series}: the series itself, or its delta encoding.
+     */
+    public Object encode(BarSeries series) {
+        if (!deltaEncoding()) {
+            return series;
+        }
+        return DeltaBars.of(series, tick == null ? null : TickSize.parse(tick));
+    }
+
+    /**
+     * Price precision from {@code precision} or {@code significant}, or
+     * {@link Precision#SHORTEST} when neither is given.
+     */
+    public Precision pricePrecision() {
+        return pricePrecision(precision, significant);
+    }
+
+    static Precision pricePrecision(Integer precision, Integer significant) {
+        if (precision != null && significant != null) {
+            throw new IllegalArgumentException("Give either precision or significant, not both");
+        }
+        if (precision != null) {
+            return Precision.decimals(precision);
+        }
+        if (significant != null) {
+            return Precision.significant(significant);
+        }
+        return Precision.SHORTEST;
+    }
+
+    public SortOrder sortOrder() {
+        return order == null ? SortOrder.DESC : SortOrder.parse(order);
+    }
+}
@@ -0,0 +1,87 @@
+package com.parser.LLM.Data.controller;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs tasks concurrently and hands their results to a {@link Sink} in the
+ * order they were submitted. At most {@code parallelism} tasks are in flight;
+ * {@link #submit} first drains the oldest one when the window is full, so a
+ * fast upload is never queued up in memory ahead of the response.
+ *
+ * Not thread-safe: submit, finish and close from the thread that writes the
+ * response.
+ */
+final class OrderedFanOut<T> implements AutoCloseable {
+
+    @FunctionalInterface
+    interface Sink<T> {
+        void accept(T result) throws IOException;
+    }
+
+    private final AsyncTaskExecutor executor;
+    private final int parallelism;
+    private final Sink<T> sink;
+    private final Deque<Future<T>> inFlight = new ArrayDeque<>();
+
+    OrderedFanOut(AsyncTaskExecutor executor, int parallelism, Sink<T> sink) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.sink = sink;
+    }
+
+    void submit(Callable<T> task) throws IOException {
+        if (inFlight.size() >= parallelism) {
+            sink.accept(await(inFlight.remove()));
+        }
+        inFlight.add(executor.submit(task));
+    }
+
+    /**
+     * Waits for the remaining tasks and hands on their results.
+     */
+    void finish() throws IOException {
+        while (!inFlight.isEmpty()) {
+            sink.accept(await(inFlight.remove()));
+        }
+    }
+
+    /**
+     * Cancels whatever is still in flight, e.g. after the client went away.
+     */
+    @Override
+    public void close() {
+        for (Future<T> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a batch line");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.parser.LLM.Data.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.parser.LLM.Data.arrow.ArrowBarWriter;
+import com.parser.LLM.Data.normalize.TextBarWriter;
+import com.parser.LLM.Data.normalize.TextFormat;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Encodings the normalize endpoint can answer in. JSON, CBOR and MessagePack
+ * carry the same {@code {"s", "i", "tz", "d"}} structure, written by the same
+ * generator-based serializer; the binary ones store prices as float64 and
+ * volumes as integers instead of decimal text. Arrow turns the bars into
+ * columns, see {@link ArrowBarWriter}, and the text formats into delimited
+ * lines for prompts, see {@link TextBarWriter}.
+ */
+enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    CBOR(MediaType.APPLICATION_CBOR, null),
+    MSGPACK(new MediaType("application", "x-msgpack"), null),
+    ARROW(MediaType.parseMediaType(ArrowBarWriter.MEDIA_TYPE), null),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), TextFormat.CSV),
+    TSV(new MediaType("text", "tab-separated-values", StandardCharsets.UTF_8), TextFormat.TSV),
+    TABLE(new MediaType("text", "markdown", StandardCharsets.UTF_8), TextFormat.TABLE);
+
+    static final String MSGPACK_VALUE = "application/x-msgpack";
+    static final String CSV_VALUE = "text/csv";
+    static final String TSV_VALUE = "text/tab-separated-values";
+    static final String TABLE_VALUE = "text/markdown";
+
+    private final MediaType mediaType;
+    private final TextFormat textFormat;
+
+    ResponseFormat(MediaType mediaType, TextFormat textFormat) {
+        this.mediaType = mediaType;
+        this.textFormat = textFormat;
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Layout for the text formats, null otherwise.
+     */
+    TextFormat textFormat() {
+        return textFormat;
+    }
+
+    /**
+     * Whether the response is text that ends up in a prompt, so a token estimate applies.
+     */
+    boolean textual() {
+        return this == JSON || textFormat != null;
+    }
+
+    /**
+     * Mapper for this format sharing the configuration of the application's JSON
+     * mapper, or null for the formats not written through Jackson.
+     */
+    ObjectMapper mapper(ObjectMapper json) {
+        return switch (this) {
+            case JSON -> json;
+            case CBOR -> json.copyWith(new CBORFactory());
+            case MSGPACK -> json.copyWith(new MessagePackFactory());
+            case ARROW, CSV, TSV, TABLE -> null;
+        };
+    }
+
+    /**
+     * The format named by a {@code format} query parameter, or the one negotiated
+     * from {@code accept} when there is none.
+     *
+     * @throws IllegalArgumentException for an unknown name
+     */
+    static ResponseFormat select(String name, String accept) {
+        if (name == null) {
+            return negotiate(accept);
+        }
+        for (ResponseFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format '" + name
+                + "': expected json, cbor, msgpack, arrow, csv, tsv or table");
+    }
+
+    /**
+     * Picks the format for an {@code Accept} header: the acceptable type with the
+     * highest quality wins, JSON when the header is missing, a wildcard or unusable.
+     */
+    static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            for (ResponseFormat format : values()) {
+                if (type.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
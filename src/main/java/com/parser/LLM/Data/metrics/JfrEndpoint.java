@@ -0,0 +1,168 @@
+package com.parser.LLM.Data.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: controls one Flight Recorder recording on the running node.
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} reports the recording state</li>
+ *   <li>{@code POST /actuator/jfr/start} with a JSON body starts it, e.g. {@code {}} or
+ *       {@code {"settings": "profile", "maxAge": "PT10M", "maxSize": "64MB"}}; settings
+ *       default to "default", and the recording keeps at most the last 30 minutes and
+ *       250MB unless told otherwise</li>
+ *   <li>{@code GET /actuator/jfr/dump} downloads what has been recorded so far</li>
+ *   <li>{@code POST /actuator/jfr/stop} stops and discards it</li>
+ * </ul>
+ *
+ * {@link NormalizeEvent} is always enabled in the recording, whatever the settings.
+ *
+ * Anyone who can reach the endpoint can profile the node and download the
+ * recording, so it is not exposed by default. Expose it only on a management
+ * port that is not public, or behind security configuration, with
+ * {@code management.endpoints.web.exposure.include=...,jfr}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final String RECORDING_NAME = "llm-data";
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(250);
+
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", Duration.between(recording.getStartTime(), Instant.now()).toString());
+        status.put("size", recording.getSize());
+        status.put("maxAge", recording.getMaxAge().toString());
+        status.put("maxSize", recording.getMaxSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> control(@Selector String action,
+                                                                         @Nullable String settings,
+                                                                         @Nullable Duration maxAge,
+                                                                         @Nullable DataSize maxSize) {
+        switch (action) {
+            case "start" -> {
+                if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                    return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+                }
+                closeRecording();
+                Configuration configuration;
+                try {
+                    configuration = Configuration.getConfiguration(settings == null ? "default" : settings);
+                } catch (IOException | ParseException ex) {
+                    return message("Unknown JFR settings '" + settings + "'", WebEndpointResponse.STATUS_BAD_REQUEST);
+                }
+                recording = new Recording(configuration);
+                recording.setName(RECORDING_NAME);
+                recording.enable(NormalizeEvent.class);
+                // Limits only apply to a recording kept on disk; without them it would grow until stopped
+                recording.setToDisk(true);
+                recording.setMaxAge(maxAge == null ? DEFAULT_MAX_AGE : maxAge);
+                recording.setMaxSize((maxSize == null ? DEFAULT_MAX_SIZE : maxSize).toBytes());
+                recording.start();
+                return new WebEndpointResponse<>(status());
+            }
+            case "stop" -> {
+                if (recording == null) {
+                    return message("No recording", WebEndpointResponse.STATUS_NOT_FOUND);
+                }
+                closeRecording();
+                return new WebEndpointResponse<>(status());
+            }
+            default -> {
+                return message("Unknown action '" + action + "': expected start or stop",
+                        WebEndpointResponse.STATUS_BAD_REQUEST);
+            }
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String what) throws IOException {
+        if (!"dump".equals(what)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        try (Recording snapshot = recording.copy(false)) {
+            snapshot.dump(file);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> message(String message, int status) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return new WebEndpointResponse<>(body, status);
+    }
+
+    /**
+     * Deletes the dumped file once it has been streamed to the client.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            InputStream in = super.getInputStream();
+            return new FilterInputStream(in) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.parser.LLM.Data.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one normalized payload. Its duration spans the
+ * whole pipeline; the per-stage fields break it down.
+ *
+ * While no recording enables the event, {@code begin()} and {@code shouldCommit()}
+ * are intrinsics that reduce to a flag check, so the only cost left is the
+ * allocation of the event object itself.
+ */
+@Name("com.parser.llmdata.Normalize")
+@Label("Normalize Request")
+@Category({"LLM Data", "Normalize"})
+@Description("Provider payload normalized into the compact bar format")
+@StackTrace(false)
+class NormalizeEvent extends Event {
+
+    @Label("Provider")
+    String provider;
+
+    @Label("Symbol")
+    String symbol;
+
+    @Label("Interval")
+    String interval;
+
+    @Label("Bars")
+    int bars;
+
+    @Label("Skipped Rows")
+    int skipped;
+
+    @Label("Bytes In")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Parse")
+    @Timespan
+    long parseNanos;
+
+    @Label("Sort")
+    @Timespan
+    long sortNanos;
+
+    @Label("Transform")
+    @Timespan
+    long transformNanos;
+
+    @Label("Store")
+    @Timespan
+    long storeNanos;
+
+    @Label("Serialize")
+    @Timespan
+    long serializeNanos;
+}
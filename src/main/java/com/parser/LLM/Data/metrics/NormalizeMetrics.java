@@ -0,0 +1,75 @@
+package com.parser.LLM.Data.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link NormalizeTrace}s as Micrometer meters tagged by provider
+ * and interval, all with percentile histograms so p99 can be aggregated
+ * across instances:
+ *
+ * <ul>
+ *   <li>{@code llm.normalize.stage} timer, additionally tagged by {@code stage}</li>
+ *   <li>{@code llm.normalize.bars} bars in the response</li>
+ *   <li>{@code llm.normalize.skipped.rows} malformed provider rows dropped</li>
+ *   <li>{@code llm.normalize.request.bytes} / {@code llm.normalize.response.bytes}</li>
+ * </ul>
+ *
+ * Only payloads that were actually normalized are recorded; cache hits show up
+ * in the cache meters instead. Each trace is also committed as a JFR event
+ * when a recording is running.
+ */
+@Component
+public class NormalizeMetrics {
+
+    private final MeterRegistry registry;
+
+    public NormalizeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(NormalizeTrace trace) {
+        trace.commitEvent();
+        Tags tags = Tags.of("provider", tagValue(trace.provider()), "interval", tagValue(trace.interval()));
+
+        for (NormalizeTrace.Stage stage : NormalizeTrace.Stage.values()) {
+            long nanos = trace.nanos(stage);
+            if (nanos > 0) {
+                Timer.builder("llm.normalize.stage")
+                        .description("Time spent per normalize pipeline stage")
+                        .tags(tags)
+                        .tag("stage", stage.tag)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        summary("llm.normalize.bars", "Bars in the normalized response", null, tags).record(trace.bars());
+        summary("llm.normalize.skipped.rows", "Malformed provider rows dropped", null, tags).record(trace.skipped());
+        if (trace.requestBytes() >= 0) {
+            summary("llm.normalize.request.bytes", "Provider payload size", "bytes", tags).record(trace.requestBytes());
+        }
+        if (trace.responseBytes() >= 0) {
+            summary("llm.normalize.response.bytes", "Normalized response size", "bytes", tags).record(trace.responseBytes());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String tagValue(String value) {
+        return value == null ? "unknown" : value;
+    }
+}
@@ -0,0 +1,134 @@
+package com.parser.LLM.Data.metrics;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+
+import java.util.Locale;
+
+/**
+ * What one normalize run did and how long each stage took. Filled in by the
+ * controller as the payload moves through the pipeline, then handed to
+ * {@link NormalizeMetrics}, which also commits it as a {@link NormalizeEvent}.
+ * Not thread-safe; one instance per payload.
+ *
+ * Byte counts are -1 when unknown, e.g. a body of unknown length or a
+ * response serialized by the message converter after the handler returned.
+ */
+public final class NormalizeTrace {
+
+    public enum Stage {
+        /** Tokenizing and decoding rows into columns; the two are interleaved in one pass. */
+        PARSE,
+        SORT,
+        /** Resampling and downsampling. */
+        TRANSFORM,
+        /** Appending the decoded bars to the local store. */
+        STORE,
+        SERIALIZE;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final long[] nanos = new long[Stage.values().length];
+    private final NormalizeEvent event = new NormalizeEvent();
+    private long mark;
+
+    private String provider;
+    private String symbol;
+    private String interval;
+    private int bars;
+    private int skipped;
+    private long requestBytes = -1;
+    private long responseBytes = -1;
+
+    public NormalizeTrace() {
+        event.begin();
+        mark = System.nanoTime();
+    }
+
+    /**
+     * Charges the time since the previous lap (or creation) to {@code stage}.
+     */
+    public void lap(Stage stage) {
+        long now = System.nanoTime();
+        nanos[stage.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * Takes provider, symbol, interval and dropped rows from the freshly decoded series.
+     */
+    public void decoded(BarSeries series) {
+        provider = series.provider();
+        symbol = series.symbol();
+        interval = series.interval();
+        skipped = series.skipped();
+        bars = series.size();
+    }
+
+    public void bars(int bars) {
+        this.bars = bars;
+    }
+
+    public void requestBytes(long requestBytes) {
+        this.requestBytes = requestBytes;
+    }
+
+    public void responseBytes(long responseBytes) {
+        this.responseBytes = responseBytes;
+    }
+
+    /**
+     * Ends the trace's Flight Recorder event and commits it if a recording wants it.
+     */
+    void commitEvent() {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.provider = provider;
+        event.symbol = symbol;
+        event.interval = interval;
+        event.bars = bars;
+        event.skipped = skipped;
+        event.requestBytes = requestBytes;
+        event.responseBytes = responseBytes;
+        event.parseNanos = nanos(Stage.PARSE);
+        event.sortNanos = nanos(Stage.SORT);
+        event.transformNanos = nanos(Stage.TRANSFORM);
+        event.storeNanos = nanos(Stage.STORE);
+        event.serializeNanos = nanos(Stage.SERIALIZE);
+        event.commit();
+    }
+
+    public long nanos(Stage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public String interval() {
+        return interval;
+    }
+
+    public int bars() {
+        return bars;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    public long requestBytes() {
+        return requestBytes;
+    }
+
+    public long responseBytes() {
+        return responseBytes;
+    }
+}
@@ -0,0 +1,331 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+
+/**
+ * Column store for normalized OHLCV bars.
+ *
+ * Each field lives in its own primitive array, so a bar costs six array slots
+ * instead of a row list with a label string and five boxed numbers. Timestamps
+ * are kept as wall-clock epoch seconds in the series time zone; the "HH:mm" or
+ * date label is only rendered when the series is written out.
+ *
+ * A series can also pass its bars straight on to a {@link BarSink}, see
+ * {@link #drainTo(BarSink)}.
+ */
+@JsonSerialize(using = BarSeriesSerializer.class)
+public final class BarSeries {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private String symbol;
+    private String interval;
+    private String timeZone;
+    private boolean dateLabels;
+    private String provider;
+    private int skipped;
+
+    private BarSink drain;
+    private boolean draining;
+    private int drained;
+
+    private long[] epoch;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+    private int size;
+
+    public BarSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BarSeries(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.epoch = new long[capacity];
+        this.open = new double[capacity];
+        this.high = new double[capacity];
+        this.low = new double[capacity];
+        this.close = new double[capacity];
+        this.volume = new long[capacity];
+    }
+
+    /**
+     * Sets the header. With a {@link #drainTo drain} attached, the first call also
+     * hands the header and the bars collected so far to the drain; the header is
+     * fixed from then on and later calls are ignored.
+     */
+    public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+        if (draining) {
+            return;
+        }
+        this.symbol = symbol;
+        this.interval = interval;
+        this.timeZone = timeZone;
+        this.dateLabels = dateLabels;
+        if (drain != null) {
+            draining = true;
+            replay(drain);
+            drained = size;
+            size = 0;
+        }
+    }
+
+    /**
+     * Hands the header and the stored bars, in their current order, to {@code sink}.
+     */
+    public void replay(BarSink sink) {
+        sink.describe(symbol, interval, timeZone, dateLabels);
+        for (int i = 0; i < size; i++) {
+            sink.add(epoch[i], open[i], high[i], low[i], close[i], volume[i]);
+        }
+    }
+
+    /**
+     * Makes the series forward bars to {@code sink} instead of keeping them, from
+     * the moment its header is known. Decoders that learn the header before the
+     * bars describe the series early, so every bar streams through as it is
+     * decoded; otherwise the bars are held until the final {@link #describe}.
+     * A drained series stays empty and cannot be ordered or transformed.
+     */
+    public void drainTo(BarSink sink) {
+        this.drain = sink;
+    }
+
+    /**
+     * Bars handed to the drain so far.
+     */
+    public int drained() {
+        return drained;
+    }
+
+    /**
+     * Makes room for at least {@code capacity} bars.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > epoch.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Records the id of the adapter that decoded this series; not serialized.
+     */
+    public void provider(String provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Counts a malformed provider row that was dropped instead of added.
+     */
+    public void skip() {
+        skipped++;
+    }
+
+    public void add(long epochSeconds, double o, double h, double l, double c, long v) {
+        if (draining) {
+            drain.add(epochSeconds, o, h, l, c, v);
+            drained++;
+            return;
+        }
+        if (size == epoch.length) {
+            grow();
+        }
+        epoch[size] = epochSeconds;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+    }
+
+    /**
+     * Puts the bars into the requested order.
+     *
+     * Providers normally emit a strictly monotonic series, so a single scan
+     * first checks whether the bars already are in (or exactly opposite to) the
+     * requested order, in which case at most an in-place reversal is needed.
+     * Only a non-monotonic series is sorted by epoch, and bars sharing a timestamp collapse into the
+     * one added last, mirroring how a JSON object keeps its last duplicate key.
+     */
+    public void order(SortOrder target) {
+        if (size < 2) {
+            return;
+        }
+
+        boolean descending = true;
+        boolean ascending = true;
+        for (int i = 1; i < size && (descending || ascending); i++) {
+            long previous = epoch[i - 1];
+            long current = epoch[i];
+            if (current >= previous) {
+                descending = false;
+            }
+            if (current <= previous) {
+                ascending = false;
+            }
+        }
+
+        if (!descending && !ascending) {
+            sortNewestFirst();
+            descending = true;
+        }
+        if (descending != (target == SortOrder.DESC)) {
+            reverse();
+        }
+    }
+
+    private void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long e = epoch[i];
+            epoch[i] = epoch[j];
+            epoch[j] = e;
+            double o = open[i];
+            open[i] = open[j];
+            open[j] = o;
+            double h = high[i];
+            high[i] = high[j];
+            high[j] = h;
+            double l = low[i];
+            low[i] = low[j];
+            low[j] = l;
+            double c = close[i];
+            close[i] = close[j];
+            close[j] = c;
+            long v = volume[i];
+            volume[i] = volume[j];
+            volume[j] = v;
+        }
+    }
+
+    private void sortNewestFirst() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        mergeSortDescending(order, new int[size], 0, size);
+
+        long[] sortedEpoch = new long[size];
+        double[] sortedOpen = new double[size];
+        double[] sortedHigh = new double[size];
+        double[] sortedLow = new double[size];
+        double[] sortedClose = new double[size];
+        long[] sortedVolume = new long[size];
+
+        int n = 0;
+        for (int k = 0; k < size; k++) {
+            int i = order[k];
+            // The sort is stable, so the last bar of a run of equal timestamps wins
+            if (k + 1 < size && epoch[order[k + 1]] == epoch[i]) {
+                continue;
+            }
+            sortedEpoch[n] = epoch[i];
+            sortedOpen[n] = open[i];
+            sortedHigh[n] = high[i];
+            sortedLow[n] = low[i];
+            sortedClose[n] = close[i];
+            sortedVolume[n] = volume[i];
+            n++;
+        }
+
+        epoch = sortedEpoch;
+        open = sortedOpen;
+        high = sortedHigh;
+        low = sortedLow;
+        close = sortedClose;
+        volume = sortedVolume;
+        size = n;
+    }
+
+    private void mergeSortDescending(int[] order, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSortDescending(order, scratch, from, mid);
+        mergeSortDescending(order, scratch, mid, to);
+        if (epoch[order[mid - 1]] >= epoch[order[mid]]) {
+            return;
+        }
+
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < mid && epoch[scratch[left]] >= epoch[scratch[right]])) {
+                order[k] = scratch[left++];
+            } else {
+                order[k] = scratch[right++];
+            }
+        }
+    }
+
+    private void grow() {
+        resize(epoch.length + (epoch.length >> 1) + 1);
+    }
+
+    private void resize(int capacity) {
+        epoch = Arrays.copyOf(epoch, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public String interval() {
+        return interval;
+    }
+
+    public String timeZone() {
+        return timeZone;
+    }
+
+    public boolean dateLabels() {
+        return dateLabels;
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long epoch(int i) {
+        return epoch[i];
+    }
+
+    public double open(int i) {
+        return open[i];
+    }
+
+    public double high(int i) {
+        return high[i];
+    }
+
+    public double low(int i) {
+        return low[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public long volume(int i) {
+        return volume[i];
+    }
+}
@@ -0,0 +1,75 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteCapability;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link BarSeries} as {@code {"s", "i", "tz", "d"}} where each entry
+ * of "d" is {@code [label, open, high, low, close, volume]}, reading straight
+ * from the primitive columns.
+ *
+ * In JSON, prices are written by {@link DecimalFormatter} rather than
+ * {@link Double#toString}, so "160.0" becomes "160" and no value is written
+ * in exponent notation. A {@link Precision} passed as the writer attribute
+ * {@code Precision.class} rounds them; binary formats get the rounded double.
+ */
+public class BarSeriesSerializer extends StdSerializer<BarSeries> {
+
+    public BarSeriesSerializer() {
+        super(BarSeries.class);
+    }
+
+    @Override
+    public void serialize(BarSeries series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("s", series.symbol());
+        gen.writeStringField("i", series.interval());
+        gen.writeStringField("tz", series.timeZone());
+
+        Precision precision = (Precision) provider.getAttribute(Precision.class);
+        if (precision == null) {
+            precision = Precision.SHORTEST;
+        }
+        char[] scratch = new char[DecimalFormatter.MAX_LENGTH];
+        gen.writeArrayFieldStart("d");
+        for (int i = 0; i < series.size(); i++) {
+            writeBar(gen, scratch, precision, series.dateLabels(), series.epoch(i), series.open(i), series.high(i),
+                    series.low(i), series.close(i), series.volume(i));
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes one {@code [label, open, high, low, close, volume]} entry, using
+     * {@code scratch} of at least {@link DecimalFormatter#MAX_LENGTH} chars.
+     */
+    static void writeBar(JsonGenerator gen, char[] scratch, Precision precision, boolean dateLabels, long epoch,
+                         double open, double high, double low, double close, long volume) throws IOException {
+        gen.writeStartArray(null, 6);
+        int labelLength = dateLabels
+                ? Timestamps.formatDate(epoch, scratch, 0)
+                : Timestamps.formatTime(epoch, scratch, 0);
+        gen.writeString(scratch, 0, labelLength);
+        writePrice(gen, scratch, precision, open);
+        writePrice(gen, scratch, precision, high);
+        writePrice(gen, scratch, precision, low);
+        writePrice(gen, scratch, precision, close);
+        gen.writeNumber(volume);
+        gen.writeEndArray();
+    }
+
+    private static void writePrice(JsonGenerator gen, char[] scratch, Precision precision, double price)
+            throws IOException {
+        if (gen.getWriteCapabilities().isEnabled(StreamWriteCapability.CAN_WRITE_FORMATTED_NUMBERS)) {
+            gen.writeNumber(scratch, 0, DecimalFormatter.format(price, precision, scratch, 0));
+        } else {
+            gen.writeNumber(DecimalFormatter.round(price, precision));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Receives a series one bar at a time, header first. Implementations write bars
+ * out as they arrive instead of keeping them; see {@link BarSeries#drainTo(BarSink)}.
+ */
+public interface BarSink {
+
+    void describe(String symbol, String interval, String timeZone, boolean dateLabels);
+
+    void add(long epochSeconds, double open, double high, double low, double close, long volume);
+}
@@ -0,0 +1,25 @@
+package com.parser.LLM.Data.normalize;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * {@link BarSink} that encodes a response as the bars arrive. Closing releases
+ * the writer without completing the response, so a failed one stays visibly cut off.
+ */
+public interface BarWriter extends BarSink, Closeable {
+
+    /**
+     * Completes the response after the last bar.
+     *
+     * @throws IllegalStateException when the series was never described
+     */
+    void finish() throws IOException;
+
+    /**
+     * Whether the header, and therefore part of the response, has been written.
+     */
+    boolean started();
+
+    int bars();
+}
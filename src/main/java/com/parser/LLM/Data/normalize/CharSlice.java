@@ -0,0 +1,42 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Reusable {@link CharSequence} view over a region of a char array.
+ *
+ * Lets token text from {@link com.fasterxml.jackson.core.JsonParser#getTextCharacters()}
+ * be handed to {@link DecimalParser} without creating a String per value.
+ * Only valid until the parser advances.
+ */
+public final class CharSlice implements CharSequence {
+
+    private char[] chars = new char[0];
+    private int offset;
+    private int length;
+
+    public CharSlice reset(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
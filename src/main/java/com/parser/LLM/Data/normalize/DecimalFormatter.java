@@ -0,0 +1,212 @@
+package com.parser.LLM.Data.normalize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes prices as plain ASCII decimals without trailing zeros, e.g. "160.01",
+ * "160" or "0.00001234", never in exponent notation, into a caller-owned
+ * buffer without allocating.
+ *
+ * With {@link Precision#SHORTEST} the output is the shortest decimal that
+ * reads back as the same double. Provider prices are short decimals to begin
+ * with, so rather than a general shortest-digits algorithm the value is probed
+ * at 0, 1, 2... fraction digits: the candidate {@code m / 10^d} is divided
+ * out in double arithmetic, which is correctly rounded for exact {@code m} and
+ * {@code 10^d}, so comparing it with the value proves that the decimal reads
+ * back unchanged. "160.01" is found at the third probe. Values needing more
+ * than 2^53 units fall back to {@link BigDecimal}.
+ *
+ * With fraction or significant digits the value is rounded half up using long
+ * arithmetic. Rounding applies to the binary value, so 1.005, which is stored
+ * as 1.00499..., rounds to "1" at two digits; only when the scaled value
+ * outgrows a double's exact range is the shortest decimal form rounded instead.
+ */
+public final class DecimalFormatter {
+
+    /** Longest output: a full plain rendering of {@link Double#MAX_VALUE} plus sign. */
+    public static final int MAX_LENGTH = 330;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+            100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    // Rounded values beyond this may not be exact in a double, so they take the slow path
+    private static final double MAX_EXACT_SCALED = 1e15;
+
+    // Every long below this converts to a double exactly
+    private static final double MAX_EXACT_UNITS = 0x1p53;
+
+    private DecimalFormatter() {
+    }
+
+    /**
+     * Writes {@code value} into {@code dst} at {@code off} and returns the number
+     * of chars written, at most {@link #MAX_LENGTH}.
+     */
+    public static int format(double value, Precision precision, char[] dst, int off) {
+        if (precision.shortest()) {
+            return formatShortest(value, dst, off);
+        }
+        int decimals = precision.decimalsFor(value);
+        if (decimals >= 0 && decimals < POW10.length) {
+            double scaled = value * POW10[decimals];
+            if (Math.abs(scaled) < MAX_EXACT_SCALED) {
+                // Math.round breaks ties towards positive infinity, as the fallback below does
+                return formatUnits(Math.round(scaled), decimals, dst, off);
+            }
+        } else if (decimals < 0 && -decimals < POW10.length) {
+            double scaled = value / POW10[-decimals];
+            if (Math.abs(scaled) < MAX_EXACT_SCALED) {
+                return formatWithZeros(Math.round(scaled), -decimals, dst, off);
+            }
+        }
+        return formatPlain(roundSlow(value, decimals), dst, off);
+    }
+
+    /**
+     * The double nearest to what {@link #format} writes for {@code value}, for
+     * encodings that carry binary doubles.
+     */
+    public static double round(double value, Precision precision) {
+        if (precision.shortest()) {
+            return value;
+        }
+        int decimals = precision.decimalsFor(value);
+        if (decimals >= 0 && decimals < POW10.length) {
+            double scaled = value * POW10[decimals];
+            if (Math.abs(scaled) < MAX_EXACT_SCALED) {
+                return Math.round(scaled) / (double) POW10[decimals];
+            }
+        } else if (decimals < 0 && -decimals < POW10.length) {
+            double scaled = value / POW10[-decimals];
+            if (Math.abs(scaled) < MAX_EXACT_SCALED) {
+                return Math.round(scaled) * (double) POW10[-decimals];
+            }
+        }
+        return roundSlow(value, decimals).doubleValue();
+    }
+
+    /**
+     * Writes a long as decimal digits and returns the number of chars written.
+     */
+    public static int formatLong(long value, char[] dst, int off) {
+        if (value == Long.MIN_VALUE) {
+            return writeAscii("-9223372036854775808", dst, off);
+        }
+        int pos = off;
+        if (value < 0) {
+            dst[pos++] = '-';
+            value = -value;
+        }
+        return pos - off + writeDigits(value, dst, pos);
+    }
+
+    private static int formatShortest(double value, char[] dst, int off) {
+        double abs = Math.abs(value);
+        for (int decimals = 0; decimals < POW10.length; decimals++) {
+            double divisor = POW10[decimals];
+            double scaled = abs * divisor;
+            if (!(scaled < MAX_EXACT_UNITS - 1)) {
+                break;
+            }
+            long units = Math.round(scaled);
+            // The product may itself be off by one unit, so the neighbours are candidates too
+            long match = units / divisor == abs ? units
+                    : (units + 1) / divisor == abs ? units + 1
+                    : units > 0 && (units - 1) / divisor == abs ? units - 1
+                    : -1;
+            if (match >= 0) {
+                return formatUnits(value < 0 ? -match : match, decimals, dst, off);
+            }
+        }
+        return formatPlain(BigDecimal.valueOf(value), dst, off);
+    }
+
+    private static BigDecimal roundSlow(double value, int decimals) {
+        return BigDecimal.valueOf(value).setScale(decimals,
+                value >= 0 ? RoundingMode.HALF_UP : RoundingMode.HALF_DOWN);
+    }
+
+    /**
+     * {@code units / 10^scale}, trailing fraction zeros removed.
+     */
+    private static int formatUnits(long units, int scale, char[] dst, int off) {
+        int pos = off;
+        if (units < 0) {
+            dst[pos++] = '-';
+            units = -units;
+        }
+        long divisor = POW10[scale];
+        long whole = units / divisor;
+        long fraction = units % divisor;
+        if (whole == 0 && fraction == 0) {
+            // No "-0"
+            dst[off] = '0';
+            return 1;
+        }
+        pos += writeDigits(whole, dst, pos);
+        if (fraction != 0) {
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                scale--;
+            }
+            dst[pos++] = '.';
+            int digits = digitCount(fraction);
+            for (int i = digits; i < scale; i++) {
+                dst[pos++] = '0';
+            }
+            pos += writeDigits(fraction, dst, pos);
+        }
+        return pos - off;
+    }
+
+    /**
+     * {@code units * 10^zeros}.
+     */
+    private static int formatWithZeros(long units, int zeros, char[] dst, int off) {
+        if (units == 0) {
+            dst[off] = '0';
+            return 1;
+        }
+        int pos = off + formatLong(units, dst, off);
+        for (int i = 0; i < zeros; i++) {
+            dst[pos++] = '0';
+        }
+        return pos - off;
+    }
+
+    private static int formatPlain(BigDecimal value, char[] dst, int off) {
+        if (value.signum() == 0) {
+            dst[off] = '0';
+            return 1;
+        }
+        return writeAscii(value.stripTrailingZeros().toPlainString(), dst, off);
+    }
+
+    private static int writeDigits(long value, char[] dst, int off) {
+        int digits = digitCount(value);
+        for (int i = off + digits - 1; i >= off; i--) {
+            dst[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return digits;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int writeAscii(String s, char[] dst, int off) {
+        s.getChars(0, s.length(), dst, off);
+        return s.length();
+    }
+}
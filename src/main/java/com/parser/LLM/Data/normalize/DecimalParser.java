@@ -0,0 +1,294 @@
+package com.parser.LLM.Data.normalize;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exception-free parsing of provider numerals such as "160.0100" or "1200".
+ *
+ * Accepts an optional sign, digits with an optional fraction and, for doubles, an
+ * optional exponent. Failures are reported through return values: {@code NaN} for
+ * doubles and {@link #INVALID} for longs, so strings like "None" or "" cost a
+ * single scan instead of a {@link NumberFormatException}.
+ *
+ * Doubles with at most 15 significant digits and a decimal exponent within
+ * +/-22 are computed as one exactly-rounded multiplication or division of two
+ * exactly representable values, which yields the same bits as
+ * {@link Double#parseDouble}. Anything longer falls back to the JDK after the
+ * syntax has already been validated.
+ */
+public final class DecimalParser {
+
+    /** Returned by the long-valued parse methods when the input is not a valid numeral. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int MAX_TRACKED_EXPONENT = 100_000;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long[] LONG_POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private DecimalParser() {
+    }
+
+    public static double parseDouble(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        int dropped = 0;
+        int fractionDigits = 0;
+        boolean anyDigit = false;
+
+        for (; i < len; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            anyDigit = true;
+            if (significant < MAX_FAST_DIGITS + 1) {
+                if (mantissa != 0 || d != 0) {
+                    significant++;
+                }
+                mantissa = mantissa * 10 + d;
+            } else {
+                dropped++;
+            }
+        }
+        if (i < len && s.charAt(i) == '.') {
+            for (i++; i < len; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                anyDigit = true;
+                if (significant < MAX_FAST_DIGITS + 1) {
+                    if (mantissa != 0 || d != 0) {
+                        significant++;
+                    }
+                    mantissa = mantissa * 10 + d;
+                    fractionDigits++;
+                } else {
+                    dropped++;
+                }
+            }
+        }
+        if (!anyDigit) {
+            return Double.NaN;
+        }
+
+        int exponent = 0;
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int start = i;
+            for (; i < len; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                if (exponent < MAX_TRACKED_EXPONENT) {
+                    exponent = exponent * 10 + d;
+                }
+            }
+            if (i == start) {
+                return Double.NaN;
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != len) {
+            return Double.NaN;
+        }
+
+        if (significant <= MAX_FAST_DIGITS && dropped == 0) {
+            double value = fastPath(mantissa, exponent - fractionDigits);
+            if (!Double.isNaN(value)) {
+                return negative ? -value : value;
+            }
+        }
+        // Syntax is already known to be valid, so the JDK cannot throw here
+        return Double.parseDouble(s.toString());
+    }
+
+    /**
+     * {@link #parseDouble(CharSequence)} over {@code bytes[off, off + len)} read as Latin-1.
+     */
+    public static double parseDouble(byte[] bytes, int off, int len) {
+        return parseDouble(new Latin1Slice(bytes, off, len));
+    }
+
+    /**
+     * Parses a plain decimal into an integer count of {@code 10^-scale} units, so
+     * "160.0100" at scale 4 becomes 1600100. Returns {@link #INVALID} for
+     * malformed input, overflow, or fractions that would lose precision at the
+     * requested scale.
+     */
+    public static long parseScaled(CharSequence s, int scale) {
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+
+        long value = 0;
+        boolean anyDigit = false;
+        for (; i < len; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            anyDigit = true;
+            if (value > (Long.MAX_VALUE - d) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + d;
+        }
+
+        int fractionDigits = 0;
+        if (i < len && s.charAt(i) == '.') {
+            for (i++; i < len; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                anyDigit = true;
+                if (fractionDigits == scale) {
+                    // Digits beyond the scale are only acceptable as padding
+                    if (d != 0) {
+                        return INVALID;
+                    }
+                    continue;
+                }
+                if (value > (Long.MAX_VALUE - d) / 10) {
+                    return INVALID;
+                }
+                value = value * 10 + d;
+                fractionDigits++;
+            }
+        }
+        if (!anyDigit || i != len) {
+            return INVALID;
+        }
+
+        int pad = scale - fractionDigits;
+        if (pad >= LONG_POW10.length || value > Long.MAX_VALUE / LONG_POW10[pad]) {
+            return INVALID;
+        }
+        value *= LONG_POW10[pad];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an optionally signed integer. Returns {@link #INVALID} for malformed
+     * input or overflow, which leaves {@code Long.MIN_VALUE} itself unrepresentable.
+     */
+    public static long parseLong(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+        if (i == len) {
+            return INVALID;
+        }
+
+        long value = 0;
+        for (; i < len; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9 || value > (Long.MAX_VALUE - d) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * {@link #parseLong(CharSequence)} over {@code bytes[off, off + len)} read as Latin-1.
+     */
+    public static long parseLong(byte[] bytes, int off, int len) {
+        return parseLong(new Latin1Slice(bytes, off, len));
+    }
+
+    /**
+     * Returns {@code mantissa * 10^exponent} when both factors are exact doubles,
+     * otherwise NaN to request the slow path.
+     */
+    private static double fastPath(long mantissa, int exponent) {
+        if (mantissa > MAX_EXACT_MANTISSA) {
+            return Double.NaN;
+        }
+        if (exponent == 0) {
+            return mantissa;
+        }
+        if (exponent < 0 && exponent >= -22) {
+            return mantissa / POW10[-exponent];
+        }
+        if (exponent > 0 && exponent <= 22) {
+            return mantissa * POW10[exponent];
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Byte numerals seen as characters, so both overloads share one scanner.
+     * Short-lived, so the JIT can usually keep it off the heap.
+     */
+    private static final class Latin1Slice implements CharSequence {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+
+        Latin1Slice(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A series to be written in the delta encoding, see {@link DeltaBarsSerializer}.
+ */
+@JsonSerialize(using = DeltaBarsSerializer.class)
+public record DeltaBars(BarSeries series, TickSize tick) {
+
+    /**
+     * Pairs {@code series} with {@code tick}, or with the inferred tick when it is
+     * null, after checking that every price is a whole number of ticks, so that
+     * writing cannot fail halfway.
+     *
+     * @throws IllegalArgumentException when a price does not fit the tick
+     */
+    public static DeltaBars of(BarSeries series, TickSize tick) {
+        TickSize resolved = tick != null ? tick : TickSize.infer(series);
+        for (int i = 0; i < series.size(); i++) {
+            check(resolved, series.open(i));
+            check(resolved, series.high(i));
+            check(resolved, series.low(i));
+            check(resolved, series.close(i));
+        }
+        return new DeltaBars(series, resolved);
+    }
+
+    private static void check(TickSize tick, double price) {
+        if (tick.toTicks(price) == TickSize.INVALID) {
+            throw new IllegalArgumentException("Price " + price + " is not a multiple of tick " + tick);
+        }
+    }
+}
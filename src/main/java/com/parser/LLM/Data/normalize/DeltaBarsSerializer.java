@@ -0,0 +1,59 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link DeltaBars} as {@code {"s", "i", "tz", "tick", "base", "d"}}.
+ *
+ * Prices become whole ticks: {@code base} is the first bar's open, and each
+ * entry of "d" is {@code [label, open, high, low, close, volume]} with the four
+ * prices relative to the previous bar's close, the first bar's relative to
+ * {@code base}. Consecutive bars usually differ by a few ticks, so rows shrink
+ * to short integers. {@link DeltaDecoder} turns the document back into prices.
+ */
+public class DeltaBarsSerializer extends StdSerializer<DeltaBars> {
+
+    public DeltaBarsSerializer() {
+        super(DeltaBars.class);
+    }
+
+    @Override
+    public void serialize(DeltaBars bars, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        BarSeries series = bars.series();
+        TickSize tick = bars.tick();
+        long base = series.size() == 0 ? 0 : tick.toTicks(series.open(0));
+
+        gen.writeStartObject();
+        gen.writeStringField("s", series.symbol());
+        gen.writeStringField("i", series.interval());
+        gen.writeStringField("tz", series.timeZone());
+        gen.writeNumberField("tick", tick.value());
+        gen.writeNumberField("base", base);
+
+        char[] label = new char[Timestamps.DATE_LENGTH];
+        long previous = base;
+        gen.writeArrayFieldStart("d");
+        for (int i = 0; i < series.size(); i++) {
+            long close = tick.toTicks(series.close(i));
+            gen.writeStartArray(null, 6);
+            int labelLength = series.dateLabels()
+                    ? Timestamps.formatDate(series.epoch(i), label, 0)
+                    : Timestamps.formatTime(series.epoch(i), label, 0);
+            gen.writeString(label, 0, labelLength);
+            gen.writeNumber(tick.toTicks(series.open(i)) - previous);
+            gen.writeNumber(tick.toTicks(series.high(i)) - previous);
+            gen.writeNumber(tick.toTicks(series.low(i)) - previous);
+            gen.writeNumber(close - previous);
+            gen.writeNumber(series.volume(i));
+            gen.writeEndArray();
+            previous = close;
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+}
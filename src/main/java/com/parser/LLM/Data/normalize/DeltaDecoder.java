@@ -0,0 +1,67 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reverses {@link DeltaBarsSerializer}: feed the rows in order and read back the
+ * original prices, bit for bit.
+ */
+public final class DeltaDecoder {
+
+    private final TickSize tick;
+    private long previous;
+
+    public DeltaDecoder(TickSize tick, long base) {
+        this.tick = tick;
+        this.previous = base;
+    }
+
+    /**
+     * Decodes the next row's open, high, low and close deltas into {@code prices[0..3]}.
+     */
+    public void next(long open, long high, long low, long close, double[] prices) {
+        prices[0] = tick.toPrice(previous + open);
+        prices[1] = tick.toPrice(previous + high);
+        prices[2] = tick.toPrice(previous + low);
+        prices[3] = tick.toPrice(previous + close);
+        previous += close;
+    }
+
+    /**
+     * Turns a parsed delta document into the plain {@code {"s", "i", "tz", "d"}}
+     * document with prices as doubles.
+     *
+     * @throws IllegalArgumentException when {@code tick} or {@code base} is missing
+     */
+    public static ObjectNode toAbsolute(JsonNode document) {
+        JsonNode tickNode = document.get("tick");
+        JsonNode baseNode = document.get("base");
+        if (tickNode == null || !tickNode.isNumber() || baseNode == null || !baseNode.canConvertToLong()) {
+            throw new IllegalArgumentException("Not a delta document: missing 'tick' or 'base'");
+        }
+        DeltaDecoder decoder = new DeltaDecoder(TickSize.parse(tickNode.decimalValue().toPlainString()),
+                baseNode.longValue());
+
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        ObjectNode plain = nodes.objectNode();
+        plain.set("s", document.get("s"));
+        plain.set("i", document.get("i"));
+        plain.set("tz", document.get("tz"));
+        ArrayNode rows = plain.putArray("d");
+        double[] prices = new double[4];
+        for (JsonNode row : document.path("d")) {
+            decoder.next(row.get(1).longValue(), row.get(2).longValue(), row.get(3).longValue(),
+                    row.get(4).longValue(), prices);
+            ArrayNode out = rows.addArray();
+            out.add(row.get(0));
+            for (double price : prices) {
+                out.add(price);
+            }
+            out.add(row.get(5));
+        }
+        return plain;
+    }
+}
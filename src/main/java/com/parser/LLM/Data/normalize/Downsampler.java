@@ -0,0 +1,142 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Shrinks a series to a row budget with Largest-Triangle-Three-Buckets on the
+ * close price, see Steinarsson, "Downsampling Time Series for Visual
+ * Representation" (2013).
+ *
+ * The first and last bars are always kept, and so are the bars holding the
+ * highest high and the lowest low, so the range of the series survives even
+ * when LTTB would have picked a neighbour. Kept bars are copied unchanged;
+ * nothing is aggregated.
+ */
+public final class Downsampler {
+
+    // Two endpoints plus the two extremes
+    public static final int MIN_ROWS = 4;
+
+    private Downsampler() {
+    }
+
+    /**
+     * Returns a series of at most {@code maxRows} bars, oldest first, or the input
+     * itself (put into ascending order) when it already fits.
+     */
+    public static BarSeries lttb(BarSeries series, int maxRows) {
+        if (maxRows < MIN_ROWS) {
+            throw new IllegalArgumentException("maxRows must be at least " + MIN_ROWS);
+        }
+        series.order(SortOrder.ASC);
+        int n = series.size();
+        if (n <= maxRows) {
+            return series;
+        }
+
+        int highest = 0;
+        int lowest = 0;
+        for (int i = 1; i < n; i++) {
+            if (series.high(i) > series.high(highest)) {
+                highest = i;
+            }
+            if (series.low(i) < series.low(lowest)) {
+                lowest = i;
+            }
+        }
+
+        // Reserve room for the extremes that are not endpoints anyway
+        int reserved = 0;
+        if (highest != 0 && highest != n - 1) {
+            reserved++;
+        }
+        if (lowest != 0 && lowest != n - 1 && lowest != highest) {
+            reserved++;
+        }
+        int threshold = maxRows - reserved;
+
+        int[] kept = select(series, threshold);
+        return copy(series, kept, highest, lowest);
+    }
+
+    /**
+     * Plain LTTB: indices of {@code threshold} bars in ascending order.
+     */
+    private static int[] select(BarSeries series, int threshold) {
+        int n = series.size();
+        int[] kept = new int[threshold];
+        kept[0] = 0;
+        kept[threshold - 1] = n - 1;
+        if (threshold == 2) {
+            return kept;
+        }
+
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int b = 0; b < threshold - 2; b++) {
+            int from = (int) (b * every) + 1;
+            int to = (int) ((b + 1) * every) + 1;
+
+            // Average of the next bucket, or the last bar for the final bucket
+            int nextFrom = to;
+            int nextTo = Math.min((int) ((b + 2) * every) + 1, n);
+            if (b == threshold - 3) {
+                nextFrom = n - 1;
+                nextTo = n;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextFrom; j < nextTo; j++) {
+                avgX += series.epoch(j);
+                avgY += series.close(j);
+            }
+            int count = nextTo - nextFrom;
+            avgX /= count;
+            avgY /= count;
+
+            double ax = series.epoch(a);
+            double ay = series.close(a);
+            double maxArea = -1;
+            int chosen = from;
+            for (int j = from; j < to; j++) {
+                double area = Math.abs((ax - avgX) * (series.close(j) - ay)
+                        - (ax - series.epoch(j)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            kept[b + 1] = chosen;
+            a = chosen;
+        }
+        return kept;
+    }
+
+    /**
+     * Copies the kept bars, merging in the two extremes at their chronological position.
+     */
+    private static BarSeries copy(BarSeries series, int[] kept, int highest, int lowest) {
+        int first = Math.min(highest, lowest);
+        int second = Math.max(highest, lowest);
+
+        BarSeries out = new BarSeries(kept.length + 2);
+        out.describe(series.symbol(), series.interval(), series.timeZone(), series.dateLabels());
+        int last = -1;
+        for (int k = 0; k <= kept.length; k++) {
+            int next = k < kept.length ? kept[k] : Integer.MAX_VALUE;
+            if (first > last && first < next) {
+                append(out, series, first);
+            }
+            if (second != first && second > last && second < next) {
+                append(out, series, second);
+            }
+            if (next != Integer.MAX_VALUE) {
+                append(out, series, next);
+                last = next;
+            }
+        }
+        return out;
+    }
+
+    private static void append(BarSeries out, BarSeries series, int i) {
+        out.add(series.epoch(i), series.open(i), series.high(i), series.low(i), series.close(i), series.volume(i));
+    }
+}
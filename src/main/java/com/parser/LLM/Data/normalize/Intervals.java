@@ -0,0 +1,140 @@
+package com.parser.LLM.Data.normalize;
+
+import java.util.Locale;
+
+/**
+ * Compact interval labels such as "5m", "1h", "1d", "1w" and "1mo".
+ */
+public final class Intervals {
+
+    private static final long MINUTE = 60L;
+    private static final long HOUR = 3_600L;
+    private static final long DAY = 86_400L;
+    private static final long WEEK = 7 * DAY;
+    private static final long SHORTEST_MONTH = 28 * DAY;
+    private static final double AVERAGE_MONTH = 30.436875 * DAY;
+
+    private Intervals() {
+    }
+
+    /**
+     * Turns a provider interval label into the compact form used in the "i" field.
+     * Labels of the same length come out the same, so "60min" and "1h" are both "1h".
+     */
+    public static String normalize(String raw) {
+        String v = raw.trim();
+        String lower = v.toLowerCase(Locale.US);
+
+        String compact;
+        if (!v.isEmpty() && v.length() <= 6 && v.chars().allMatch(Character::isDigit)) {
+            // Finnhub resolution in minutes: "5" -> "5m", "60" -> "1h"
+            compact = v + "m";
+        } else if (v.equals("D") || v.equals("W") || v.equals("M")) {
+            // Finnhub daily, weekly and monthly resolutions
+            return v.equals("D") ? "1d" : v.equals("W") ? "1w" : "1mo";
+        } else if (lower.endsWith("min")) {
+            // "5min" -> "5m" (only replace the suffix)
+            compact = lower.substring(0, lower.length() - 3) + "m";
+        } else if (v.length() > 1 && v.endsWith("M") && Character.isDigit(v.charAt(v.length() - 2))) {
+            // Binance style "1M" is a month, not a minute
+            compact = v.substring(0, v.length() - 1) + "mo";
+        } else if (lower.length() > 2 && lower.endsWith("wk") && Character.isDigit(lower.charAt(lower.length() - 3))) {
+            // Yahoo style "1wk"
+            compact = lower.substring(0, lower.length() - 2) + "w";
+        } else if (lower.contains("daily")) {
+            // Simple fallbacks for some common labels
+            return "1d";
+        } else if (lower.contains("weekly")) {
+            return "1w";
+        } else if (lower.contains("monthly")) {
+            return "1mo";
+        } else {
+            compact = lower;
+        }
+
+        long seconds = seconds(compact);
+        if (seconds <= 0) {
+            // Default: return as-is
+            return v;
+        }
+        if (compact.endsWith("mo")) {
+            // Months have no fixed length, so only the count is tidied: "01mo" -> "1mo"
+            return Long.parseLong(compact, 0, compact.length() - 2, 10) + "mo";
+        }
+        // Fixed lengths are never promoted to months: "4w" stays "4w"
+        return fixedLength(seconds);
+    }
+
+    /**
+     * Labels a bar spacing given in seconds, e.g. 300 -> "5m", 86400 -> "1d".
+     */
+    public static String fromSeconds(long seconds) {
+        if (seconds >= SHORTEST_MONTH) {
+            return Math.max(1, Math.round(seconds / AVERAGE_MONTH)) + "mo";
+        }
+        return fixedLength(seconds);
+    }
+
+    private static String fixedLength(long seconds) {
+        if (seconds % WEEK == 0) {
+            return seconds / WEEK + "w";
+        }
+        if (seconds % DAY == 0) {
+            return seconds / DAY + "d";
+        }
+        if (seconds % HOUR == 0) {
+            return seconds / HOUR + "h";
+        }
+        if (seconds % MINUTE == 0) {
+            return seconds / MINUTE + "m";
+        }
+        return seconds + "s";
+    }
+
+    /**
+     * Approximate length in seconds of a compact label such as "15m" or "1mo",
+     * or -1 when the label is not in compact form. Months count as their average length.
+     */
+    public static long seconds(String interval) {
+        int digits = 0;
+        while (digits < interval.length() && Character.isDigit(interval.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0 || digits > 9) {
+            return -1;
+        }
+        long count = Long.parseLong(interval, 0, digits, 10);
+        return switch (interval.substring(digits)) {
+            case "s" -> count;
+            case "m" -> count * MINUTE;
+            case "h" -> count * HOUR;
+            case "d" -> count * DAY;
+            case "w" -> count * WEEK;
+            case "mo" -> Math.round(count * AVERAGE_MONTH);
+            default -> -1;
+        };
+    }
+
+    /**
+     * Infers the interval of a series from the smallest spacing between
+     * neighbouring bars, or returns {@code null} when there are fewer than two bars.
+     */
+    public static String infer(BarSeries series) {
+        long smallest = Long.MAX_VALUE;
+        for (int i = 1; i < series.size(); i++) {
+            long gap = Math.abs(series.epoch(i) - series.epoch(i - 1));
+            if (gap > 0 && gap < smallest) {
+                smallest = gap;
+            }
+        }
+        return smallest == Long.MAX_VALUE ? null : fromSeconds(smallest);
+    }
+
+    /**
+     * Whether bars of this interval are labelled by date rather than time of day.
+     */
+    public static boolean isDaily(String interval) {
+        String lower = interval.toLowerCase(Locale.US);
+        return lower.endsWith("d") || lower.endsWith("w") || lower.endsWith("mo");
+    }
+}
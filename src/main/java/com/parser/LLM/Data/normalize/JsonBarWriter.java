@@ -0,0 +1,89 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link BarWriter} writing the same {@code {"s", "i", "tz", "d"}} document as
+ * {@link BarSeriesSerializer}, but bar by bar as the decoder produces them. Any
+ * Jackson generator works, so the binary formats stream the same way.
+ * The header is flushed right away so clients see the first bytes before the
+ * payload has been read to the end; rows then go out whenever the generator's
+ * buffer fills.
+ *
+ * {@link BarSink} methods cannot throw checked exceptions, so write failures
+ * surface as {@link UncheckedIOException}. Closing without {@link #finish()}
+ * leaves the document unterminated rather than closing it into one that looks
+ * complete.
+ */
+public final class JsonBarWriter implements BarWriter {
+
+    private final JsonGenerator gen;
+    private final Precision precision;
+    private final char[] scratch = new char[DecimalFormatter.MAX_LENGTH];
+    private boolean dateLabels;
+    private boolean started;
+    private int bars;
+
+    public JsonBarWriter(JsonGenerator gen, Precision precision) {
+        this.gen = gen;
+        this.precision = precision;
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    @Override
+    public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+        this.dateLabels = dateLabels;
+        try {
+            gen.writeStartObject();
+            gen.writeStringField("s", symbol);
+            gen.writeStringField("i", interval);
+            gen.writeStringField("tz", timeZone);
+            gen.writeArrayFieldStart("d");
+            gen.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        started = true;
+    }
+
+    @Override
+    public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+        try {
+            BarSeriesSerializer.writeBar(gen, scratch, precision, dateLabels, epochSeconds, open, high, low, close, volume);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        bars++;
+    }
+
+    /**
+     * Closes the {@code "d"} array and the document.
+     */
+    @Override
+    public void finish() throws IOException {
+        if (!started) {
+            throw new IllegalStateException("Series was never described");
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.flush();
+    }
+
+    @Override
+    public boolean started() {
+        return started;
+    }
+
+    @Override
+    public int bars() {
+        return bars;
+    }
+
+    @Override
+    public void close() throws IOException {
+        gen.close();
+    }
+}
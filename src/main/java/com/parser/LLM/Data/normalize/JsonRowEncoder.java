@@ -0,0 +1,82 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * {@link BarSink} that encodes each element of a series as its own line of
+ * JSON and hands the bytes on, line break included, for NDJSON: the header as
+ * {@code {"s", "i", "tz"}}, then every bar as the same
+ * {@code [label, open, high, low, close, volume]} array that
+ * {@link BarSeriesSerializer} writes into "d".
+ *
+ * One generator is reused for all values, so a row costs only its byte array.
+ */
+public final class JsonRowEncoder implements BarSink {
+
+    private final ByteArrayBuilder bytes = new ByteArrayBuilder(256);
+    private final JsonGenerator gen;
+    private final Precision precision;
+    private final Consumer<byte[]> rows;
+    private final char[] scratch = new char[DecimalFormatter.MAX_LENGTH];
+    private boolean dateLabels;
+    private int bars;
+
+    public JsonRowEncoder(JsonFactory factory, Precision precision, Consumer<byte[]> rows) {
+        try {
+            this.gen = factory.createGenerator(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        gen.setRootValueSeparator(null);
+        this.precision = precision;
+        this.rows = rows;
+    }
+
+    @Override
+    public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+        this.dateLabels = dateLabels;
+        try {
+            gen.writeStartObject();
+            gen.writeStringField("s", symbol);
+            gen.writeStringField("i", interval);
+            gen.writeStringField("tz", timeZone);
+            gen.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        emit();
+    }
+
+    @Override
+    public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+        try {
+            BarSeriesSerializer.writeBar(gen, scratch, precision, dateLabels, epochSeconds, open, high, low, close,
+                    volume);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        bars++;
+        emit();
+    }
+
+    public int bars() {
+        return bars;
+    }
+
+    private void emit() {
+        try {
+            gen.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        bytes.append('\n');
+        rows.accept(bytes.toByteArray());
+        bytes.reset();
+    }
+}
@@ -0,0 +1,64 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * How many digits of a price to write: a fixed number of fraction digits, a
+ * number of significant digits, or {@link #SHORTEST} for every digit needed to
+ * read the same double back. Applied by {@link DecimalFormatter}.
+ *
+ * @param decimals    fraction digits, or -1
+ * @param significant significant digits, or -1
+ */
+public record Precision(int decimals, int significant) {
+
+    public static final int MAX_DECIMALS = 12;
+
+    /** A double carries 15 to 17 significant decimal digits. */
+    public static final int MAX_SIGNIFICANT = 17;
+
+    public static final Precision SHORTEST = new Precision(-1, -1);
+
+    public Precision {
+        if (decimals >= 0 && significant >= 0) {
+            throw new IllegalArgumentException("Give either decimals or significant digits, not both");
+        }
+        if (decimals > MAX_DECIMALS || decimals < -1) {
+            throw new IllegalArgumentException("precision must be between 0 and " + MAX_DECIMALS);
+        }
+        if (significant > MAX_SIGNIFICANT || significant == 0 || significant < -1) {
+            throw new IllegalArgumentException("significant must be between 1 and " + MAX_SIGNIFICANT);
+        }
+    }
+
+    public static Precision decimals(int decimals) {
+        if (decimals < 0) {
+            throw new IllegalArgumentException("precision must be between 0 and " + MAX_DECIMALS);
+        }
+        return new Precision(decimals, -1);
+    }
+
+    public static Precision significant(int digits) {
+        if (digits < 1) {
+            throw new IllegalArgumentException("significant must be between 1 and " + MAX_SIGNIFICANT);
+        }
+        return new Precision(-1, digits);
+    }
+
+    public boolean shortest() {
+        return decimals < 0 && significant < 0;
+    }
+
+    /**
+     * Fraction digits to round {@code value} to. Negative for significant digits
+     * that end left of the decimal point, e.g. -2 for 123456 at four digits.
+     * Not meaningful for {@link #SHORTEST}.
+     */
+    public int decimalsFor(double value) {
+        if (significant < 0) {
+            return decimals;
+        }
+        if (value == 0 || !Double.isFinite(value)) {
+            return 0;
+        }
+        return significant - 1 - (int) Math.floor(Math.log10(Math.abs(value)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Aggregates bars into a coarser interval: first open, highest high, lowest
+ * low, last close and summed volume per bucket.
+ *
+ * Epochs are wall-clock seconds in the series time zone, so buckets line up
+ * with that zone's calendar without any offset arithmetic. Day, week (starting
+ * Monday) and month targets use calendar buckets. Intraday targets are aligned
+ * to the session: each day's grid starts from that day's first bar, so 1h
+ * buckets of a 09:30 open run 09:30-10:30 rather than 09:00-10:00, and a
+ * bucket never spans midnight.
+ */
+public final class Resampler {
+
+    private static final long DAY = 86_400L;
+    // 1970-01-01 was a Thursday; shifting by three days makes weeks start on Monday
+    private static final long MONDAY_SHIFT = 3;
+
+    private Resampler() {
+    }
+
+    /**
+     * Returns a new series resampled to {@code target}, oldest bar first.
+     * The input is put into ascending order first.
+     *
+     * @throws IllegalArgumentException when the target is not a compact interval
+     *                                  or is finer than the series interval
+     */
+    public static BarSeries resample(BarSeries series, String target) {
+        String interval = Intervals.normalize(target);
+        long width = Intervals.seconds(interval);
+        if (width <= 0) {
+            throw new IllegalArgumentException("Unsupported resample interval: " + target);
+        }
+        long source = series.interval() == null ? -1 : Intervals.seconds(series.interval());
+        if (source > width) {
+            throw new IllegalArgumentException(
+                    "Cannot resample " + series.interval() + " bars to the finer interval " + interval);
+        }
+
+        series.order(SortOrder.ASC);
+        Bucketing bucketing = Bucketing.of(interval, width);
+
+        int capacity = source > 0 ? (int) Math.min(series.size(), series.size() * source / width + 2) : series.size();
+        BarSeries out = new BarSeries(capacity);
+        out.describe(series.symbol(), interval, series.timeZone(), series.dateLabels() || Intervals.isDaily(interval));
+
+        int n = series.size();
+        if (n == 0) {
+            return out;
+        }
+
+        long bucket = bucketing.start(series.epoch(0));
+        double open = series.open(0);
+        double high = series.high(0);
+        double low = series.low(0);
+        double close = series.close(0);
+        long volume = series.volume(0);
+
+        for (int i = 1; i < n; i++) {
+            long start = bucketing.start(series.epoch(i));
+            if (start != bucket) {
+                out.add(bucket, open, high, low, close, volume);
+                bucket = start;
+                open = series.open(i);
+                high = series.high(i);
+                low = series.low(i);
+                volume = 0;
+            } else {
+                high = Math.max(high, series.high(i));
+                low = Math.min(low, series.low(i));
+            }
+            close = series.close(i);
+            volume += series.volume(i);
+        }
+        out.add(bucket, open, high, low, close, volume);
+        return out;
+    }
+
+    /**
+     * Maps an epoch to the start of its bucket. Bars must be fed in ascending order.
+     */
+    private static final class Bucketing {
+
+        private final char unit;
+        private final long count;
+        private final long width;
+
+        private long day = Long.MIN_VALUE;
+        private long anchor;
+
+        private Bucketing(char unit, long count, long width) {
+            this.unit = unit;
+            this.count = count;
+            this.width = width;
+        }
+
+        static Bucketing of(String interval, long width) {
+            if (interval.endsWith("mo")) {
+                return new Bucketing('M', Long.parseLong(interval, 0, interval.length() - 2, 10), width);
+            }
+            char unit = interval.charAt(interval.length() - 1);
+            return switch (unit) {
+                case 'w' -> new Bucketing(unit, width / (7 * DAY), width);
+                case 'd' -> new Bucketing(unit, width / DAY, width);
+                default -> new Bucketing('t', 1, width);
+            };
+        }
+
+        long start(long epoch) {
+            switch (unit) {
+                case 'M' -> {
+                    long month = Timestamps.monthsSinceEpoch(epoch);
+                    return Timestamps.startOfMonth(month - Math.floorMod(month, count));
+                }
+                case 'w' -> {
+                    long week = Math.floorDiv(Math.floorDiv(epoch, DAY) + MONDAY_SHIFT, 7);
+                    return ((week - Math.floorMod(week, count)) * 7 - MONDAY_SHIFT) * DAY;
+                }
+                case 'd' -> {
+                    long days = Math.floorDiv(epoch, DAY);
+                    return (days - Math.floorMod(days, count)) * DAY;
+                }
+                default -> {
+                    long d = Math.floorDiv(epoch, DAY);
+                    if (d != day) {
+                        // First bar of a new day opens the session grid
+                        day = d;
+                        long midnight = d * DAY;
+                        anchor = midnight + Math.floorMod(epoch - midnight, width);
+                    }
+                    return epoch - Math.floorMod(epoch - anchor, width);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.parser.LLM.Data.normalize;
+
+import java.util.Locale;
+
+/**
+ * Output order of the bars in a normalized series.
+ */
+public enum SortOrder {
+
+    /** Oldest bar first. */
+    ASC,
+
+    /** Newest bar first, the order Alpha Vantage itself uses. */
+    DESC;
+
+    public static SortOrder parse(String raw) {
+        return switch (raw.trim().toLowerCase(Locale.US)) {
+            case "asc" -> ASC;
+            case "desc" -> DESC;
+            default -> throw new IllegalArgumentException("Unsupported order '" + raw + "': expected 'asc' or 'desc'");
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.parser.LLM.Data.normalize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link BarWriter} for LLM prompts: one delimited line per bar instead of JSON
+ * arrays, which spend tokens on brackets, commas and the quotes around every
+ * label. For example, as CSV:
+ *
+ * <pre>
+ * # IBM 5m US/Eastern
+ * time,open,high,low,close,volume
+ * 19:55,160.01,160.2,159.9,160.1,1200
+ * </pre>
+ *
+ * The first line carries the series header, labels are the same as in the
+ * JSON output, and prices are written by {@link DecimalFormatter} at the
+ * given {@link Precision}. Rows are encoded into a byte buffer that is written out whenever it fills.
+ *
+ * {@link BarSink} methods cannot throw checked exceptions, so write failures
+ * surface as {@link UncheckedIOException}.
+ */
+public final class TextBarWriter implements BarWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String[] COLUMNS = {"time", "open", "high", "low", "close", "volume"};
+
+    private final OutputStream out;
+    private final TextFormat format;
+    private final Precision precision;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final char[] digits = new char[DecimalFormatter.MAX_LENGTH];
+    private int pos;
+    private boolean dateLabels;
+    private boolean started;
+    private int bars;
+
+    public TextBarWriter(OutputStream out, TextFormat format, Precision precision) {
+        this.out = out;
+        this.format = format;
+        this.precision = precision;
+    }
+
+    @Override
+    public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+        this.dateLabels = dateLabels;
+        StringBuilder header = new StringBuilder("#");
+        for (String part : new String[]{symbol, interval, timeZone}) {
+            if (part != null) {
+                header.append(' ').append(part);
+            }
+        }
+        header.append('\n');
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (format.framed || i > 0) {
+                header.append((char) format.delimiter);
+            }
+            header.append(COLUMNS[i]);
+        }
+        if (format.framed) {
+            header.append('|').append('\n');
+            header.append("|-".repeat(COLUMNS.length)).append('|');
+        }
+        header.append('\n');
+        byte[] bytes = header.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            // Sent right away so clients see the first bytes before the payload has been read to the end
+            out.write(bytes);
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        started = true;
+    }
+
+    @Override
+    public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+        if (pos > BUFFER_SIZE - 6 * DecimalFormatter.MAX_LENGTH) {
+            flushBuffer();
+        }
+        if (format.framed) {
+            buffer[pos++] = format.delimiter;
+        }
+        copy(dateLabels
+                ? Timestamps.formatDate(epochSeconds, digits, 0)
+                : Timestamps.formatTime(epochSeconds, digits, 0));
+        price(open);
+        price(high);
+        price(low);
+        price(close);
+        buffer[pos++] = format.delimiter;
+        copy(DecimalFormatter.formatLong(volume, digits, 0));
+        if (format.framed) {
+            buffer[pos++] = format.delimiter;
+        }
+        buffer[pos++] = '\n';
+        bars++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!started) {
+            throw new IllegalStateException("Series was never described");
+        }
+        out.write(buffer, 0, pos);
+        pos = 0;
+        out.flush();
+    }
+
+    @Override
+    public boolean started() {
+        return started;
+    }
+
+    @Override
+    public int bars() {
+        return bars;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void price(double value) {
+        buffer[pos++] = format.delimiter;
+        copy(DecimalFormatter.format(value, precision, digits, 0));
+    }
+
+    private void copy(int length) {
+        for (int i = 0; i < length; i++) {
+            buffer[pos++] = (byte) digits[i];
+        }
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buffer, 0, pos);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        pos = 0;
+    }
+}
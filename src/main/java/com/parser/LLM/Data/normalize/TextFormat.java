@@ -0,0 +1,22 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Delimited text layouts written by {@link TextBarWriter}.
+ */
+public enum TextFormat {
+
+    /** {@code time,open,high,low,close,volume} */
+    CSV((byte) ',', false),
+    /** Tab separated, otherwise like CSV. */
+    TSV((byte) '\t', false),
+    /** Markdown pipe table: {@code |time|open|...|} with a {@code |-|-|...|} rule under the header. */
+    TABLE((byte) '|', true);
+
+    final byte delimiter;
+    final boolean framed;
+
+    TextFormat(byte delimiter, boolean framed) {
+        this.delimiter = delimiter;
+        this.framed = framed;
+    }
+}
@@ -0,0 +1,120 @@
+package com.parser.LLM.Data.normalize;
+
+import java.math.BigDecimal;
+
+/**
+ * A price increment of {@code units * 10^-decimals}, e.g. 0.01 or 0.05, used to
+ * turn prices into whole ticks and back.
+ *
+ * Conversion is exact or refused: {@link #toTicks} only accepts a price when
+ * {@link #toPrice} gives back the identical double. Decoding divides an exact
+ * integer by an exact power of ten, so a price parsed from "160.01" comes back
+ * as the very same double.
+ */
+public record TickSize(long units, int decimals) {
+
+    public static final int MAX_DECIMALS = 12;
+
+    /** Returned by {@link #toTicks} when the price is not a whole number of ticks. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12
+    };
+
+    // Tick counts, and their products with units, stay exact doubles below 2^53
+    private static final double MAX_EXACT = 0x1p53;
+
+    public TickSize {
+        if (units <= 0 || decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Invalid tick size");
+        }
+    }
+
+    /**
+     * Parses a decimal such as "0.01" or "0.05".
+     */
+    public static TickSize parse(String text) {
+        BigDecimal tick;
+        try {
+            tick = new BigDecimal(text.trim()).stripTrailingZeros();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid tick '" + text + "'");
+        }
+        if (tick.signum() <= 0) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        int scale = Math.max(tick.scale(), 0);
+        if (scale > MAX_DECIMALS) {
+            throw new IllegalArgumentException("tick must have at most " + MAX_DECIMALS + " decimals");
+        }
+        try {
+            return new TickSize(tick.movePointRight(scale).longValueExact(), scale);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Invalid tick '" + text + "'");
+        }
+    }
+
+    /**
+     * The coarsest power-of-ten tick, 1 down to 10^-{@value #MAX_DECIMALS}, that
+     * holds every price of {@code series} exactly.
+     *
+     * @throws IllegalArgumentException when no such tick exists
+     */
+    public static TickSize infer(BarSeries series) {
+        int decimals = 0;
+        for (int i = 0; i < series.size(); i++) {
+            decimals = decimalsFor(series.open(i), decimals);
+            decimals = decimalsFor(series.high(i), decimals);
+            decimals = decimalsFor(series.low(i), decimals);
+            decimals = decimalsFor(series.close(i), decimals);
+        }
+        return new TickSize(1, decimals);
+    }
+
+    /**
+     * Whole ticks in {@code price}, or {@link #INVALID} when it is not an exact multiple.
+     */
+    public long toTicks(double price) {
+        return toTicks(price, units, decimals);
+    }
+
+    public double toPrice(long ticks) {
+        return toPrice(ticks, units, decimals);
+    }
+
+    public double value() {
+        return units / POW10[decimals];
+    }
+
+    /**
+     * Plain decimal form, e.g. "0.05".
+     */
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(units, decimals).toPlainString();
+    }
+
+    private static long toTicks(double price, long units, int decimals) {
+        double scaled = price * POW10[decimals] / units;
+        if (!(Math.abs(scaled) < MAX_EXACT / units)) {
+            return INVALID;
+        }
+        long ticks = Math.round(scaled);
+        return toPrice(ticks, units, decimals) == price ? ticks : INVALID;
+    }
+
+    private static double toPrice(long ticks, long units, int decimals) {
+        return (double) (ticks * units) / POW10[decimals];
+    }
+
+    private static int decimalsFor(double price, int atLeast) {
+        for (int decimals = atLeast; decimals <= MAX_DECIMALS; decimals++) {
+            if (toTicks(price, 1, decimals) != INVALID) {
+                return decimals;
+            }
+        }
+        throw new IllegalArgumentException("Price " + price + " needs more than " + MAX_DECIMALS
+                + " decimals; give an explicit tick");
+    }
+}
@@ -0,0 +1,175 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Fixed-layout parsing and formatting of provider timestamps.
+ *
+ * Handles "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm" and the date-only
+ * "yyyy-MM-dd" used by daily series. Values are wall-clock epoch seconds:
+ * seconds since 1970-01-01 00:00 in the series' own time zone, with no
+ * offset applied. Nothing here allocates or throws on bad input.
+ */
+public final class Timestamps {
+
+    /** Returned by the parse methods when the input does not match a supported layout. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    public static final int DATE_LENGTH = 10;
+    public static final int TIME_LABEL_LENGTH = 5;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private Timestamps() {
+    }
+
+    public static long parseEpochSeconds(CharSequence ts) {
+        int len = ts.length();
+        if (len != DATE_LENGTH && len != DATE_LENGTH + 6 && len != DATE_LENGTH + 9) {
+            return INVALID;
+        }
+
+        int year = digits4(ts, 0);
+        int month = digits2(ts, 5);
+        int day = digits2(ts, 8);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || ts.charAt(4) != '-' || ts.charAt(7) != '-') {
+            return INVALID;
+        }
+
+        long seconds = daysFromCivil(year, month, day) * SECONDS_PER_DAY;
+        if (len == DATE_LENGTH) {
+            return seconds;
+        }
+
+        char sep = ts.charAt(10);
+        int hour = digits2(ts, 11);
+        int minute = digits2(ts, 14);
+        if ((sep != ' ' && sep != 'T') || ts.charAt(13) != ':' || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+        seconds += hour * 3_600L + minute * 60L;
+        if (len == DATE_LENGTH + 6) {
+            return seconds;
+        }
+
+        int second = digits2(ts, 17);
+        if (ts.charAt(16) != ':' || second < 0 || second > 59) {
+            return INVALID;
+        }
+        return seconds + second;
+    }
+
+    /**
+     * Whether a timestamp of this textual layout carries a time of day.
+     */
+    public static boolean hasTimeOfDay(CharSequence ts) {
+        return ts.length() > DATE_LENGTH;
+    }
+
+    /**
+     * Writes "HH:mm" into {@code dst} and returns the number of chars written.
+     */
+    public static int formatTime(long epochSeconds, char[] dst, int off) {
+        int secondOfDay = (int) Math.floorMod(epochSeconds, SECONDS_PER_DAY);
+        int hour = secondOfDay / 3_600;
+        int minute = (secondOfDay / 60) % 60;
+        put2(dst, off, hour);
+        dst[off + 2] = ':';
+        put2(dst, off + 3, minute);
+        return TIME_LABEL_LENGTH;
+    }
+
+    /**
+     * Writes "yyyy-MM-dd" into {@code dst} and returns the number of chars written.
+     */
+    public static int formatDate(long epochSeconds, char[] dst, int off) {
+        int civil = civilFromDays(Math.floorDiv(epochSeconds, SECONDS_PER_DAY));
+        int year = civil >> 9;
+        int month = (civil >> 5) & 0xF;
+        int day = civil & 0x1F;
+
+        put2(dst, off, year / 100);
+        put2(dst, off + 2, year % 100);
+        dst[off + 4] = '-';
+        put2(dst, off + 5, month);
+        dst[off + 7] = '-';
+        put2(dst, off + 8, day);
+        return DATE_LENGTH;
+    }
+
+    /**
+     * Whole calendar months since 1970-01, e.g. 0 for any time in January 1970.
+     */
+    public static long monthsSinceEpoch(long epochSeconds) {
+        int civil = civilFromDays(Math.floorDiv(epochSeconds, SECONDS_PER_DAY));
+        return ((civil >> 9) - 1970L) * 12 + ((civil >> 5) & 0xF) - 1;
+    }
+
+    /**
+     * Epoch seconds of midnight on the first day of the given {@link #monthsSinceEpoch} month.
+     */
+    public static long startOfMonth(long monthsSinceEpoch) {
+        int year = (int) (1970 + Math.floorDiv(monthsSinceEpoch, 12));
+        int month = (int) Math.floorMod(monthsSinceEpoch, 12) + 1;
+        return daysFromCivil(year, month, 1) * SECONDS_PER_DAY;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date.
+     */
+    public static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097L + doe - 719_468L;
+    }
+
+    /**
+     * Civil-from-days, see http://howardhinnant.github.io/date_algorithms.html.
+     * Returns the date packed as {@code year << 9 | month << 5 | day}.
+     */
+    private static int civilFromDays(long days) {
+        long z = days + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long doe = z - era * 146_097L;
+        long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        return year << 9 | month << 5 | day;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int digits2(CharSequence s, int at) {
+        int hi = s.charAt(at) - '0';
+        int lo = s.charAt(at + 1) - '0';
+        if (hi < 0 || hi > 9 || lo < 0 || lo > 9) {
+            return -1;
+        }
+        return hi * 10 + lo;
+    }
+
+    private static int digits4(CharSequence s, int at) {
+        int hi = digits2(s, at);
+        int lo = digits2(s, at + 2);
+        if (hi < 0 || lo < 0) {
+            return -1;
+        }
+        return hi * 100 + lo;
+    }
+
+    private static void put2(char[] dst, int off, int value) {
+        dst[off] = (char) ('0' + value / 10);
+        dst[off + 1] = (char) ('0' + value % 10);
+    }
+}
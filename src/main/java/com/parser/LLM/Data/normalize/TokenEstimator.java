@@ -0,0 +1,116 @@
+package com.parser.LLM.Data.normalize;
+
+/**
+ * Rough LLM token counts for the compact JSON written by {@link BarSeriesSerializer}
+ * and the text formats of {@link TextBarWriter}.
+ *
+ * BPE tokenizers split numbers into short digit groups and give most JSON
+ * punctuation its own token, so dense OHLCV rows come out at about three
+ * characters per token rather than the four usually quoted for prose. The text
+ * formats drop the brackets and the quotes around every label, which we
+ * measured at about 1.6 times fewer tokens per row for slightly shorter rows,
+ * so they are counted at four characters per token. This is an estimate for
+ * budgeting, not a tokenizer.
+ */
+public final class TokenEstimator {
+
+    private static final int JSON_CHARS_PER_TOKEN = 3;
+    private static final int TEXT_CHARS_PER_TOKEN = 4;
+
+    /** {@code time,open,high,low,close,volume} and its line break. */
+    private static final int TEXT_COLUMNS_LINE = 32;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * Estimate for a response of {@code chars} characters written as
+     * {@code format}, or as JSON when {@code format} is {@code null}.
+     */
+    public static long fromLength(TextFormat format, long chars) {
+        int perToken = charsPerToken(format);
+        return (chars + perToken - 1) / perToken;
+    }
+
+    /**
+     * Estimate for {@code series} written as {@code format}, or as JSON when
+     * {@code format} is {@code null}, with prices at {@code precision}.
+     */
+    public static long estimate(BarSeries series, Precision precision, TextFormat format) {
+        long chars = headerChars(series, format);
+        char[] scratch = new char[DecimalFormatter.MAX_LENGTH];
+        for (int i = 0; i < series.size(); i++) {
+            chars += rowChars(series, i, precision, format, scratch);
+        }
+        if (format == null && series.size() > 0) {
+            // No comma after the last row
+            chars--;
+        }
+        return fromLength(format, chars);
+    }
+
+    /**
+     * Largest row count whose estimate fits in {@code maxTokens}, assuming the
+     * kept rows are as wide as the average row of {@code series} written as
+     * {@code format} with prices at {@code precision}.
+     */
+    public static int rowsWithin(BarSeries series, long maxTokens, Precision precision, TextFormat format) {
+        int n = series.size();
+        if (n == 0) {
+            return 0;
+        }
+        long header = headerChars(series, format);
+        long rows = 0;
+        char[] scratch = new char[DecimalFormatter.MAX_LENGTH];
+        for (int i = 0; i < n; i++) {
+            rows += rowChars(series, i, precision, format, scratch);
+        }
+        long budget = maxTokens * charsPerToken(format) - header;
+        if (budget <= 0) {
+            return 0;
+        }
+        return (int) Math.min(n, budget * n / rows);
+    }
+
+    private static int charsPerToken(TextFormat format) {
+        return format == null ? JSON_CHARS_PER_TOKEN : TEXT_CHARS_PER_TOKEN;
+    }
+
+    /**
+     * {@code {"s":"..","i":"..","tz":"..","d":[]}}, or the {@code # symbol interval zone}
+     * line and the column names of the text formats.
+     */
+    private static long headerChars(BarSeries series, TextFormat format) {
+        if (format == null) {
+            return 30 + length(series.symbol()) + length(series.interval()) + length(series.timeZone());
+        }
+        long chars = 2 + TEXT_COLUMNS_LINE;
+        for (String part : new String[]{series.symbol(), series.interval(), series.timeZone()}) {
+            if (part != null) {
+                chars += 1 + part.length();
+            }
+        }
+        // |time|...|volume| and the |-|-|-|-|-|-| rule under it
+        return format.framed ? chars + 2 + 14 : chars;
+    }
+
+    /**
+     * {@code ["label",o,h,l,c,v]} plus the separating comma, or one delimited
+     * text line.
+     */
+    private static int rowChars(BarSeries series, int i, Precision precision, TextFormat format, char[] scratch) {
+        int label = series.dateLabels() ? Timestamps.DATE_LENGTH : Timestamps.TIME_LABEL_LENGTH;
+        int punctuation = format == null ? 10 : format.framed ? 8 : 6;
+        return punctuation + label
+                + DecimalFormatter.format(series.open(i), precision, scratch, 0)
+                + DecimalFormatter.format(series.high(i), precision, scratch, 0)
+                + DecimalFormatter.format(series.low(i), precision, scratch, 0)
+                + DecimalFormatter.format(series.close(i), precision, scratch, 0)
+                + DecimalFormatter.formatLong(series.volume(i), scratch, 0);
+    }
+
+    private static int length(String s) {
+        // null is written bare, two characters more than the quotes counted above
+        return s == null ? 2 : s.length();
+    }
+}
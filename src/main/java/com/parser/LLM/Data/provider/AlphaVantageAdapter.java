@@ -0,0 +1,269 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DecimalParser;
+import com.parser.LLM.Data.normalize.Intervals;
+import com.parser.LLM.Data.normalize.Timestamps;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Alpha Vantage "Time Series" payloads: a "Meta Data" object plus an object of
+ * bars keyed by timestamp, e.g. "Time Series (5min)" or "Weekly Time Series".
+ *
+ * Field names are matched by their label ("open", "Time Zone"), not by their
+ * numbered prefix, because the numbering differs between intraday, daily and
+ * adjusted endpoints.
+ */
+@Component
+public class AlphaVantageAdapter implements ProviderAdapter {
+
+    private static final String META_DATA = "Meta Data";
+    private static final String TIME_SERIES = "Time Series";
+
+    @Override
+    public String id() {
+        return "alphavantage";
+    }
+
+    @Override
+    public boolean supports(PayloadPeek peek) {
+        if (peek.rootToken() != JsonToken.START_OBJECT || peek.firstField() == null) {
+            return false;
+        }
+        String field = peek.firstField();
+        return field.equals(META_DATA) || field.contains(TIME_SERIES)
+                // Alpha Vantage reports errors and rate limits as a single-field object
+                || field.equals("Error Message") || field.equals("Note") || field.equals("Information");
+    }
+
+    @Override
+    public TokenDecoder newDecoder(ProviderHints hints, BarSeries series) {
+        return new Decoder(hints, series);
+    }
+
+    private static final class Decoder extends PathTrackingDecoder {
+
+        private static final int IGNORED = 0;
+        private static final int OPEN = 1;
+        private static final int HIGH = 2;
+        private static final int LOW = 3;
+        private static final int CLOSE = 4;
+        private static final int VOLUME = 5;
+        private static final int SYMBOL = 6;
+        private static final int INTERVAL = 7;
+        private static final int TIME_ZONE = 8;
+
+        private final ProviderHints hints;
+        private final BarSeries series;
+        // Field names are canonicalized by Jackson, so each label is resolved once per payload
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private boolean metaFound;
+        private String symbol;
+        private String intervalRaw;
+        private String timeZone;
+        private String providerMessage;
+
+        private String seriesKey;
+        private boolean seriesIsObject;
+        private boolean sawTimeOfDay;
+
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private long volume;
+
+        Decoder(ProviderHints hints, BarSeries series) {
+            this.hints = hints;
+            this.series = series;
+        }
+
+        @Override
+        protected void onStart(JsonToken token, JsonParser parser) {
+            if (depth() == 1) {
+                String key = field(1);
+                if (META_DATA.equals(key) && token == JsonToken.START_OBJECT) {
+                    metaFound = true;
+                } else if (seriesKey == null && key != null && key.contains(TIME_SERIES)) {
+                    seriesKey = key;
+                    seriesIsObject = token == JsonToken.START_OBJECT;
+                    if (metaFound && seriesIsObject && resolveHeader()) {
+                        // Meta data came first, so the header is settled before any bar
+                        String interval = Intervals.normalize(intervalRaw);
+                        series.describe(symbol, interval, timeZone, Intervals.isDaily(interval));
+                    }
+                }
+            } else if (depth() == 2 && inSeries()) {
+                open = Double.NaN;
+                high = Double.NaN;
+                low = Double.NaN;
+                close = Double.NaN;
+                volume = DecimalParser.INVALID;
+            }
+        }
+
+        @Override
+        protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+            switch (depth()) {
+                case 1 -> {
+                    String key = field(1);
+                    if (key == null) {
+                        return;
+                    }
+                    if (seriesKey == null && key.contains(TIME_SERIES)) {
+                        seriesKey = key;
+                    } else if (key.equals("Error Message") || key.equals("Note") || key.equals("Information")) {
+                        providerMessage = textValue(token, parser);
+                    }
+                }
+                case 2 -> {
+                    if (metaFound && META_DATA.equals(field(1))) {
+                        switch (code(field(2))) {
+                            case SYMBOL -> symbol = textValue(token, parser);
+                            case INTERVAL -> intervalRaw = textValue(token, parser);
+                            case TIME_ZONE -> timeZone = textValue(token, parser);
+                            default -> {
+                            }
+                        }
+                    }
+                }
+                case 3 -> {
+                    if (inSeries()) {
+                        switch (code(field(3))) {
+                            case OPEN -> open = doubleValue(token, parser);
+                            case HIGH -> high = doubleValue(token, parser);
+                            case LOW -> low = doubleValue(token, parser);
+                            case CLOSE -> close = doubleValue(token, parser);
+                            case VOLUME -> volume = longValue(token, parser);
+                            default -> {
+                            }
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        protected void onEnd(JsonToken token) {
+            if (depth() != 2 || token != JsonToken.END_OBJECT || !inSeries()) {
+                return;
+            }
+
+            String ts = field(2);
+            long epoch = Timestamps.parseEpochSeconds(ts);
+
+            if (epoch == Timestamps.INVALID || !Double.isFinite(open) || !Double.isFinite(high)
+                    || !Double.isFinite(low) || !Double.isFinite(close) || volume == DecimalParser.INVALID) {
+                // Skip malformed rows instead of failing the whole request
+                series.skip();
+                return;
+            }
+
+            if (Timestamps.hasTimeOfDay(ts)) {
+                sawTimeOfDay = true;
+            }
+            series.add(epoch, open, high, low, close, volume);
+        }
+
+        @Override
+        public BarSeries finish() {
+            if (!metaFound && providerMessage != null) {
+                throw new IllegalArgumentException("Alpha Vantage returned no data: " + providerMessage);
+            }
+            if (!metaFound) {
+                throw new IllegalArgumentException("Unsupported JSON shape: missing 'Meta Data' object");
+            }
+
+            if (!resolveHeader()) {
+                throw new IllegalArgumentException("Unsupported JSON shape: missing symbol, interval or time zone fields");
+            }
+            if (seriesKey == null) {
+                throw new IllegalArgumentException("Unsupported JSON shape: no 'Time Series' key found");
+            }
+            if (!seriesIsObject) {
+                throw new IllegalArgumentException("Unsupported JSON shape: time series is not an object");
+            }
+
+            series.describe(symbol, Intervals.normalize(intervalRaw), timeZone, !sawTimeOfDay);
+            return series;
+        }
+
+        /**
+         * Fills symbol, interval and time zone from the series key and the hints
+         * where the meta data lacks them, returning whether all three are known.
+         */
+        private boolean resolveHeader() {
+            if (intervalRaw == null && seriesKey != null) {
+                intervalRaw = intervalFromSeriesKey(seriesKey);
+            }
+            if (symbol == null) {
+                symbol = hints.symbol();
+            }
+            if (intervalRaw == null) {
+                intervalRaw = hints.interval();
+            }
+            if (timeZone == null) {
+                timeZone = hints.timeZone();
+            }
+            return symbol != null && intervalRaw != null && timeZone != null;
+        }
+
+        private boolean inSeries() {
+            return seriesIsObject && seriesKey.equals(field(1));
+        }
+
+        /**
+         * "Time Series (5min)" -> "5min", "Weekly Adjusted Time Series" -> "Weekly Adjusted".
+         */
+        private static String intervalFromSeriesKey(String key) {
+            int open = key.indexOf('(');
+            int close = key.indexOf(')', open + 1);
+            if (open >= 0 && close > open) {
+                return key.substring(open + 1, close);
+            }
+            String rest = key.replace(TIME_SERIES, "").trim();
+            return rest.isEmpty() ? null : rest;
+        }
+
+        private int code(String key) {
+            if (key == null) {
+                return IGNORED;
+            }
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = resolve(key);
+                codes.put(key, code);
+            }
+            return code;
+        }
+
+        /**
+         * Maps "1. open", "6. volume" or "6. Time Zone" to a field code by its label.
+         */
+        private static int resolve(String key) {
+            int dot = key.indexOf(". ");
+            String label = (dot >= 0 ? key.substring(dot + 2) : key).toLowerCase(Locale.US);
+            return switch (label) {
+                case "open" -> OPEN;
+                case "high" -> HIGH;
+                case "low" -> LOW;
+                case "close" -> CLOSE;
+                case "volume" -> VOLUME;
+                case "symbol" -> SYMBOL;
+                case "interval" -> INTERVAL;
+                case "time zone" -> TIME_ZONE;
+                default -> IGNORED;
+            };
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DecimalParser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Binance klines: an array of positional arrays
+ * {@code [openTimeMs, "open", "high", "low", "close", "volume", closeTimeMs, ...]}.
+ * Symbol and interval are not part of the payload and come from the hints, with
+ * the interval falling back to the bar spacing. Fractional base-asset volume is
+ * rounded to whole units.
+ */
+@Component
+public class BinanceAdapter implements ProviderAdapter {
+
+    @Override
+    public String id() {
+        return "binance";
+    }
+
+    @Override
+    public boolean supports(PayloadPeek peek) {
+        if (peek.rootToken() == JsonToken.START_ARRAY) {
+            return peek.firstElementToken() == JsonToken.START_ARRAY || peek.firstElementToken() == JsonToken.END_ARRAY;
+        }
+        // Binance errors look like {"code": -1121, "msg": "Invalid symbol."}
+        return peek.isObjectStartingWith("code");
+    }
+
+    @Override
+    public TokenDecoder newDecoder(ProviderHints hints, BarSeries series) {
+        return new Decoder(hints, series);
+    }
+
+    private static final class Decoder extends PathTrackingDecoder {
+
+        private final ProviderHints hints;
+        private final ZoneClock clock;
+        private final BarSeries series;
+
+        private String error;
+
+        private long openTime;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private long volume;
+        private boolean headerChecked;
+
+        Decoder(ProviderHints hints, BarSeries series) {
+            this.hints = hints;
+            this.series = series;
+            this.clock = ZoneClock.forHints(hints);
+        }
+
+        @Override
+        protected void onStart(JsonToken token, JsonParser parser) {
+            if (depth() == 1 && token == JsonToken.START_ARRAY) {
+                openTime = DecimalParser.INVALID;
+                open = Double.NaN;
+                high = Double.NaN;
+                low = Double.NaN;
+                close = Double.NaN;
+                volume = DecimalParser.INVALID;
+            }
+        }
+
+        @Override
+        protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+            if (depth() == 1 && "msg".equals(field(1))) {
+                error = textValue(token, parser);
+            }
+            if (depth() != 2 || index(1) < 0) {
+                return;
+            }
+            switch (index(2)) {
+                case 0 -> openTime = longValue(token, parser);
+                case 1 -> open = doubleValue(token, parser);
+                case 2 -> high = doubleValue(token, parser);
+                case 3 -> low = doubleValue(token, parser);
+                case 4 -> close = doubleValue(token, parser);
+                case 5 -> volume = roundedLongValue(token, parser);
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        protected void onEnd(JsonToken token) {
+            if (depth() != 1 || token != JsonToken.END_ARRAY || index(1) < 0) {
+                return;
+            }
+            if (openTime == DecimalParser.INVALID || !Double.isFinite(open) || !Double.isFinite(high)
+                    || !Double.isFinite(low) || !Double.isFinite(close) || volume == DecimalParser.INVALID) {
+                // Skip malformed rows instead of failing the whole request
+                series.skip();
+                return;
+            }
+            if (!headerChecked) {
+                // Known up front only when the caller passed the interval; describing
+                // at the first valid bar keeps error payloads from starting a stream
+                headerChecked = true;
+                EpochSeries.describeEarly(series, null, null, clock.zoneId(), hints);
+            }
+            series.add(clock.toWallClock(Math.floorDiv(openTime, 1_000L)), open, high, low, close, volume);
+        }
+
+        @Override
+        public BarSeries finish() {
+            if (error != null) {
+                throw new IllegalArgumentException("Binance returned no data: " + error);
+            }
+            return EpochSeries.describe(series, "Binance", null, null, clock.zoneId(), hints);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.parser.LLM.Data.normalize.BarSeries;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Decodes a payload handed over in chunks as they arrive, without ever waiting
+ * for more input. Each chunk is tokenized by Jackson's non-blocking parser as
+ * far as it goes and the tokens go to the same {@link TokenDecoder}s that read
+ * blocking streams; a token cut off at the end of a chunk is completed by the
+ * next one. With a drain attached to the series, bars leave during
+ * {@link #feed} as soon as their row is complete.
+ *
+ * As with {@link ProviderRegistry#decode}, anything after the root value is
+ * ignored. Not thread-safe, but chunks may be fed from different threads one
+ * after the other.
+ */
+public final class ChunkedDecoder implements Closeable {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final PayloadDecoder payload;
+
+    ChunkedDecoder(JsonFactory factory, PayloadDecoder payload) throws IOException {
+        this.parser = factory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.payload = payload;
+    }
+
+    /**
+     * Decodes {@code buffer[offset, offset + length)}. The parser keeps a
+     * reference to the array until the chunk is consumed, which it is by the
+     * time this returns, so the caller may reuse the array afterwards.
+     */
+    public void feed(byte[] buffer, int offset, int length) throws IOException {
+        if (payload.complete() || length == 0) {
+            return;
+        }
+        feeder.feedInput(buffer, offset, offset + length);
+        advance();
+    }
+
+    /**
+     * Signals the end of the payload and completes the series.
+     *
+     * @throws IllegalArgumentException when the payload does not have the expected shape
+     */
+    public BarSeries finish() throws IOException {
+        if (!payload.complete()) {
+            feeder.endOfInput();
+            advance();
+            if (!payload.complete()) {
+                throw new IllegalArgumentException("Unsupported JSON shape: payload ended before the root value closed");
+            }
+        }
+        return payload.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void advance() throws IOException {
+        JsonToken token;
+        while (!payload.complete() && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            payload.accept(parser);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.parser.LLM.Data.normalize.BarSeries;
+
+import java.io.IOException;
+
+/**
+ * Buffers the first tokens of a payload until its provider can be told apart,
+ * then replays them into that provider's decoder and forwards everything else.
+ * At most two tokens are held: the root token and either the first field name
+ * or the first array element.
+ */
+final class DetectingDecoder implements TokenDecoder {
+
+    private final ProviderRegistry registry;
+    private final ProviderHints hints;
+    private final BarSeries series;
+    private final TokenBuffer buffered = new TokenBuffer(null, false);
+    private JsonToken rootToken;
+    private ProviderAdapter adapter;
+    private TokenDecoder delegate;
+
+    DetectingDecoder(ProviderRegistry registry, ProviderHints hints, BarSeries series) {
+        this.registry = registry;
+        this.hints = hints;
+        this.series = series;
+    }
+
+    @Override
+    public void accept(JsonParser parser) throws IOException {
+        if (delegate != null) {
+            delegate.accept(parser);
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        buffered.copyCurrentEvent(parser);
+        if (rootToken == null) {
+            rootToken = token;
+            if (!token.isStructStart()) {
+                throw new IllegalArgumentException("Unsupported JSON shape: expected a JSON object or array");
+            }
+            return;
+        }
+
+        PayloadPeek peek = rootToken == JsonToken.START_OBJECT
+                ? new PayloadPeek(rootToken, token == JsonToken.FIELD_NAME ? parser.currentName() : null, null)
+                : new PayloadPeek(rootToken, null, token);
+        adapter = registry.detect(peek);
+        delegate = adapter.newDecoder(hints, series);
+
+        try (JsonParser replay = buffered.asParser()) {
+            while (replay.nextToken() != null) {
+                delegate.accept(replay);
+            }
+        }
+    }
+
+    /**
+     * The detected adapter, or {@code null} before the second token.
+     */
+    ProviderAdapter adapter() {
+        return adapter;
+    }
+
+    @Override
+    public BarSeries finish() {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Unsupported JSON shape: empty payload");
+        }
+        return delegate.finish();
+    }
+}
@@ -0,0 +1,27 @@
+package com.parser.LLM.Data.provider;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive column for payloads that deliver each field as its own array.
+ */
+final class DoubleColumn {
+
+    private double[] values = new double[256];
+    private int size;
+
+    void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    double get(int i) {
+        return values[i];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,54 @@
+package com.parser.LLM.Data.provider;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.Intervals;
+
+/**
+ * Shared completion for providers that timestamp bars with epoch values and
+ * may lack symbol or interval metadata.
+ */
+final class EpochSeries {
+
+    private EpochSeries() {
+    }
+
+    /**
+     * Fills the series header from payload values, falling back to the hints and,
+     * for the interval, to the spacing of the bars themselves.
+     */
+    static BarSeries describe(BarSeries series, String provider, String symbol, String interval,
+                              String timeZone, ProviderHints hints) {
+        String resolvedSymbol = symbol != null ? symbol : hints.symbol();
+        if (resolvedSymbol == null) {
+            throw new IllegalArgumentException(provider + " payload has no symbol; pass it as the 'symbol' request parameter");
+        }
+
+        String rawInterval = interval != null ? interval : hints.interval();
+        String resolvedInterval = rawInterval != null ? Intervals.normalize(rawInterval) : Intervals.infer(series);
+        if (resolvedInterval == null) {
+            throw new IllegalArgumentException(provider + " payload has no interval; pass it as the 'interval' request parameter");
+        }
+
+        series.describe(resolvedSymbol, resolvedInterval, timeZone, Intervals.isDaily(resolvedInterval));
+        return series;
+    }
+
+    /**
+     * Describes the series before its bars arrive when symbol and interval are
+     * known without looking at the bars, so a drained series can start streaming.
+     * The final {@link #describe} resolves the same header.
+     *
+     * @return whether the series was described
+     */
+    static boolean describeEarly(BarSeries series, String symbol, String interval, String timeZone,
+                                 ProviderHints hints) {
+        String resolvedSymbol = symbol != null ? symbol : hints.symbol();
+        String rawInterval = interval != null ? interval : hints.interval();
+        if (resolvedSymbol == null || rawInterval == null) {
+            return false;
+        }
+        String resolvedInterval = Intervals.normalize(rawInterval);
+        series.describe(resolvedSymbol, resolvedInterval, timeZone, Intervals.isDaily(resolvedInterval));
+        return true;
+    }
+}
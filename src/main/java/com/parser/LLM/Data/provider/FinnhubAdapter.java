@@ -0,0 +1,114 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DecimalParser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Finnhub stock candles: parallel arrays
+ * {@code {"c": [...], "h": [...], "l": [...], "o": [...], "s": "ok", "t": [...], "v": [...]}}
+ * with UTC epoch seconds in "t". Symbol and interval come from the hints, with
+ * the interval falling back to the bar spacing. The interval hint may be a
+ * Finnhub resolution such as "5", "60", "D", "W" or "M".
+ */
+@Component
+public class FinnhubAdapter implements ProviderAdapter {
+
+    private static final Set<String> LEADING_FIELDS = Set.of("c", "h", "l", "o", "s", "t", "v");
+
+    @Override
+    public String id() {
+        return "finnhub";
+    }
+
+    @Override
+    public boolean supports(PayloadPeek peek) {
+        return peek.rootToken() == JsonToken.START_OBJECT && LEADING_FIELDS.contains(peek.firstField());
+    }
+
+    @Override
+    public TokenDecoder newDecoder(ProviderHints hints, BarSeries series) {
+        return new Decoder(hints, series);
+    }
+
+    private static final class Decoder extends PathTrackingDecoder {
+
+        private final ProviderHints hints;
+        private final BarSeries series;
+        private final ZoneClock clock;
+
+        private final DoubleColumn time = new DoubleColumn();
+        private final DoubleColumn open = new DoubleColumn();
+        private final DoubleColumn high = new DoubleColumn();
+        private final DoubleColumn low = new DoubleColumn();
+        private final DoubleColumn close = new DoubleColumn();
+        private final DoubleColumn volume = new DoubleColumn();
+        private String status;
+
+        Decoder(ProviderHints hints, BarSeries series) {
+            this.hints = hints;
+            this.series = series;
+            this.clock = ZoneClock.forHints(hints);
+        }
+
+        @Override
+        protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+            String key = field(1);
+            if (key == null) {
+                return;
+            }
+            if (depth() == 1) {
+                if (key.equals("s")) {
+                    status = textValue(token, parser);
+                }
+                return;
+            }
+            if (depth() != 2) {
+                return;
+            }
+            switch (key) {
+                case "t" -> time.add(wholeOrNaN(longValue(token, parser)));
+                case "o" -> open.add(doubleValue(token, parser));
+                case "h" -> high.add(doubleValue(token, parser));
+                case "l" -> low.add(doubleValue(token, parser));
+                case "c" -> close.add(doubleValue(token, parser));
+                case "v" -> volume.add(wholeOrNaN(roundedLongValue(token, parser)));
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public BarSeries finish() {
+            if (status != null && !status.equals("ok") && !status.equals("no_data")) {
+                throw new IllegalArgumentException("Finnhub returned no data: " + status);
+            }
+
+            int rows = Math.min(time.size(), Math.min(Math.min(open.size(), high.size()),
+                    Math.min(Math.min(low.size(), close.size()), volume.size())));
+            series.ensureCapacity(rows);
+            for (int i = 0; i < rows; i++) {
+                double t = time.get(i);
+                if (!Double.isFinite(t) || !Double.isFinite(open.get(i)) || !Double.isFinite(high.get(i))
+                        || !Double.isFinite(low.get(i)) || !Double.isFinite(close.get(i))
+                        || !Double.isFinite(volume.get(i))) {
+                    // Skip malformed rows instead of failing the whole request
+                    series.skip();
+                    continue;
+                }
+                series.add(clock.toWallClock((long) t), open.get(i), high.get(i), low.get(i), close.get(i),
+                        (long) volume.get(i));
+            }
+            return EpochSeries.describe(series, "Finnhub", null, null, clock.zoneId(), hints);
+        }
+
+        private static double wholeOrNaN(long value) {
+            return value == DecimalParser.INVALID ? Double.NaN : value;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.CharSlice;
+import com.parser.LLM.Data.normalize.DecimalParser;
+
+import java.io.IOException;
+
+/**
+ * Base class for decoders that react to tokens by their position in the document.
+ *
+ * Depth counts the containers currently open: a value directly inside the root
+ * object is at depth 1. {@link #field(int)} and {@link #index(int)} describe the
+ * key of the value at a given depth, so for the token being handled at depth
+ * {@code d}, {@code field(d)} is its own field name and {@code field(d - 1)} the
+ * name of the object or array holding it.
+ */
+public abstract class PathTrackingDecoder implements TokenDecoder {
+
+    private static final int MAX_TRACKED_DEPTH = 32;
+
+    private final String[] fields = new String[MAX_TRACKED_DEPTH + 1];
+    private final int[] indices = new int[MAX_TRACKED_DEPTH + 1];
+    private final boolean[] arrays = new boolean[MAX_TRACKED_DEPTH + 1];
+    private final CharSlice text = new CharSlice();
+    private int depth;
+
+    @Override
+    public final void accept(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.FIELD_NAME) {
+            if (depth <= MAX_TRACKED_DEPTH) {
+                fields[depth] = parser.currentName();
+            }
+        } else if (token.isStructStart()) {
+            onStart(token, parser);
+            depth++;
+            if (depth <= MAX_TRACKED_DEPTH) {
+                fields[depth] = null;
+                indices[depth] = 0;
+                arrays[depth] = token == JsonToken.START_ARRAY;
+            }
+        } else if (token.isStructEnd()) {
+            depth--;
+            onEnd(token);
+            nextElement();
+        } else {
+            onScalar(token, parser);
+            nextElement();
+        }
+    }
+
+    /**
+     * Called for {@code START_OBJECT} / {@code START_ARRAY} before the depth is increased.
+     */
+    protected void onStart(JsonToken token, JsonParser parser) throws IOException {
+    }
+
+    /**
+     * Called for {@code END_OBJECT} / {@code END_ARRAY} after the depth is decreased,
+     * so the path still names the container that just closed.
+     */
+    protected void onEnd(JsonToken token) {
+    }
+
+    protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+    }
+
+    protected final int depth() {
+        return depth;
+    }
+
+    /**
+     * Field name of the value at {@code level} when it sits in an object, else {@code null}.
+     */
+    protected final String field(int level) {
+        return level >= 1 && level <= MAX_TRACKED_DEPTH ? fields[level] : null;
+    }
+
+    /**
+     * Position of the value at {@code level} when it sits in an array, else -1.
+     */
+    protected final int index(int level) {
+        return level >= 1 && level <= MAX_TRACKED_DEPTH && arrays[level] ? indices[level] : -1;
+    }
+
+    /**
+     * Reads a scalar price, returning NaN when it is null, not numeric, malformed
+     * or out of range, e.g. "1e400".
+     */
+    protected final double doubleValue(JsonToken token, JsonParser parser) throws IOException {
+        double value;
+        if (token.isNumeric()) {
+            value = parser.getDoubleValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            value = DecimalParser.parseDouble(
+                    text.reset(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+        } else {
+            return Double.NaN;
+        }
+        return Double.isFinite(value) ? value : Double.NaN;
+    }
+
+    /**
+     * Reads a scalar integer, returning {@link DecimalParser#INVALID} when it is null,
+     * not numeric or malformed.
+     */
+    protected final long longValue(JsonToken token, JsonParser parser) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            double value = parser.getDoubleValue();
+            return Double.isFinite(value) ? (long) value : DecimalParser.INVALID;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            return DecimalParser.INVALID;
+        }
+        return DecimalParser.parseLong(
+                text.reset(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+    }
+
+    /**
+     * Like {@link #longValue} but also accepts fractional quantities, rounding them
+     * to the nearest integer. Crypto venues report volume in fractional units.
+     */
+    protected final long roundedLongValue(JsonToken token, JsonParser parser) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            double value = parser.getDoubleValue();
+            return Double.isFinite(value) ? Math.round(value) : DecimalParser.INVALID;
+        }
+        long value = longValue(token, parser);
+        if (value != DecimalParser.INVALID || token != JsonToken.VALUE_STRING) {
+            return value;
+        }
+        double fractional = doubleValue(token, parser);
+        return !Double.isFinite(fractional) ? DecimalParser.INVALID : Math.round(fractional);
+    }
+
+    /**
+     * Reads a scalar as text, returning {@code null} for JSON null.
+     */
+    protected final String textValue(JsonToken token, JsonParser parser) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    private void nextElement() {
+        if (depth >= 1 && depth <= MAX_TRACKED_DEPTH && arrays[depth]) {
+            indices[depth]++;
+        }
+    }
+}
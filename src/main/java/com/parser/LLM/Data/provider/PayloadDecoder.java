@@ -0,0 +1,57 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+
+import java.io.IOException;
+
+/**
+ * Feeds the tokens of one root JSON value to the decoder of a named or detected
+ * provider and tags the finished series with that provider's id. Used for both
+ * blocking and chunked input, so the two cannot drift apart.
+ */
+final class PayloadDecoder {
+
+    private final ProviderAdapter adapter;
+    private final DetectingDecoder detecting;
+    private final TokenDecoder decoder;
+    private final BarSeries series;
+    private int depth;
+    private boolean complete;
+
+    PayloadDecoder(ProviderRegistry registry, String providerId, ProviderHints hints, BarSeries series) {
+        this.adapter = providerId == null || providerId.isBlank() ? null : registry.byId(providerId);
+        this.detecting = adapter == null ? new DetectingDecoder(registry, hints, series) : null;
+        this.decoder = adapter == null ? detecting : adapter.newDecoder(hints, series);
+        this.series = series;
+    }
+
+    /**
+     * Consumes the parser's current token and returns whether it closed the root value.
+     */
+    boolean accept(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        decoder.accept(parser);
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd()) {
+            depth--;
+        }
+        complete = depth == 0;
+        return complete;
+    }
+
+    /**
+     * Whether the root value has been read to its end.
+     */
+    boolean complete() {
+        return complete;
+    }
+
+    BarSeries finish() {
+        decoder.finish();
+        series.provider(adapter != null ? adapter.id() : detecting.adapter().id());
+        return series;
+    }
+}
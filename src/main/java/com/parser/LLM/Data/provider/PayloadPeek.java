@@ -0,0 +1,17 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The first tokens of a payload, which is all provider detection looks at.
+ *
+ * @param rootToken         {@code START_OBJECT} or {@code START_ARRAY} for supported payloads
+ * @param firstField        first field name of a root object, otherwise {@code null}
+ * @param firstElementToken first token inside a root array, otherwise {@code null}
+ */
+public record PayloadPeek(JsonToken rootToken, String firstField, JsonToken firstElementToken) {
+
+    public boolean isObjectStartingWith(String field) {
+        return rootToken == JsonToken.START_OBJECT && field.equals(firstField);
+    }
+}
@@ -0,0 +1,126 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DecimalParser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Polygon.io aggregates: {@code {"ticker": ..., "results": [{"t", "o", "h", "l", "c", "v"}, ...]}}
+ * with millisecond UTC timestamps. The interval is not part of the payload and
+ * is taken from the hints or inferred from the bar spacing.
+ */
+@Component
+public class PolygonAdapter implements ProviderAdapter {
+
+    private static final Set<String> LEADING_FIELDS = Set.of(
+            "ticker", "queryCount", "resultsCount", "adjusted", "results", "status", "request_id", "count", "next_url");
+
+    @Override
+    public String id() {
+        return "polygon";
+    }
+
+    @Override
+    public boolean supports(PayloadPeek peek) {
+        return peek.rootToken() == JsonToken.START_OBJECT && LEADING_FIELDS.contains(peek.firstField());
+    }
+
+    @Override
+    public TokenDecoder newDecoder(ProviderHints hints, BarSeries series) {
+        return new Decoder(hints, series);
+    }
+
+    private static final class Decoder extends PathTrackingDecoder {
+
+        private final ProviderHints hints;
+        private final ZoneClock clock;
+        private final BarSeries series;
+
+        private String ticker;
+        private String status;
+        private String error;
+
+        private long timestamp;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private long volume;
+        private boolean headerChecked;
+
+        Decoder(ProviderHints hints, BarSeries series) {
+            this.hints = hints;
+            this.series = series;
+            this.clock = ZoneClock.forHints(hints);
+        }
+
+        @Override
+        protected void onStart(JsonToken token, JsonParser parser) {
+            if (depth() == 2 && token == JsonToken.START_OBJECT && "results".equals(field(1))) {
+                timestamp = DecimalParser.INVALID;
+                open = Double.NaN;
+                high = Double.NaN;
+                low = Double.NaN;
+                close = Double.NaN;
+                volume = DecimalParser.INVALID;
+            }
+        }
+
+        @Override
+        protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+            if (depth() == 1 && field(1) != null) {
+                switch (field(1)) {
+                    case "ticker" -> ticker = textValue(token, parser);
+                    case "status" -> status = textValue(token, parser);
+                    case "error", "message" -> error = textValue(token, parser);
+                    default -> {
+                    }
+                }
+            } else if (depth() == 3 && "results".equals(field(1)) && field(3) != null) {
+                switch (field(3)) {
+                    case "t" -> timestamp = longValue(token, parser);
+                    case "o" -> open = doubleValue(token, parser);
+                    case "h" -> high = doubleValue(token, parser);
+                    case "l" -> low = doubleValue(token, parser);
+                    case "c" -> close = doubleValue(token, parser);
+                    case "v" -> volume = roundedLongValue(token, parser);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected void onEnd(JsonToken token) {
+            if (depth() != 2 || token != JsonToken.END_OBJECT || !"results".equals(field(1))) {
+                return;
+            }
+            if (timestamp == DecimalParser.INVALID || !Double.isFinite(open) || !Double.isFinite(high)
+                    || !Double.isFinite(low) || !Double.isFinite(close) || volume == DecimalParser.INVALID) {
+                // Skip malformed rows instead of failing the whole request
+                series.skip();
+                return;
+            }
+            if (!headerChecked) {
+                // Known up front only when the caller passed the interval; describing
+                // at the first valid bar keeps error payloads from starting a stream
+                headerChecked = true;
+                EpochSeries.describeEarly(series, ticker, null, clock.zoneId(), hints);
+            }
+            series.add(clock.toWallClock(Math.floorDiv(timestamp, 1_000L)), open, high, low, close, volume);
+        }
+
+        @Override
+        public BarSeries finish() {
+            if (series.size() == 0 && (error != null || "ERROR".equals(status))) {
+                throw new IllegalArgumentException("Polygon returned no data: " + (error != null ? error : status));
+            }
+            return EpochSeries.describe(series, "Polygon", ticker, null, clock.zoneId(), hints);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.parser.LLM.Data.provider;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+
+/**
+ * Normalizes the payload format of one market data vendor into a
+ * {@link BarSeries}.
+ *
+ * Adapters are Spring beans collected by {@link ProviderRegistry}. Detection
+ * only sees the first tokens of a payload, so {@link #supports(PayloadPeek)}
+ * must decide from the root token and the first field name or array element.
+ */
+public interface ProviderAdapter {
+
+    /**
+     * Identifier accepted by the {@code provider} request parameter, e.g. "alphavantage".
+     */
+    String id();
+
+    boolean supports(PayloadPeek peek);
+
+    /**
+     * @param series the series the decoder fills and returns from {@code finish()};
+     *               callers may have attached a drain to it
+     */
+    TokenDecoder newDecoder(ProviderHints hints, BarSeries series);
+}
@@ -0,0 +1,15 @@
+package com.parser.LLM.Data.provider;
+
+/**
+ * Series metadata supplied by the caller for payloads that do not carry it,
+ * such as Binance klines which contain neither symbol nor interval.
+ * Values found in the payload itself take precedence.
+ *
+ * @param symbol   ticker symbol
+ * @param interval bar interval, e.g. "5min", "1h" or "1d"
+ * @param timeZone time zone id to render epoch-based payloads in, instead of UTC
+ */
+public record ProviderHints(String symbol, String interval, String timeZone) {
+
+    public static final ProviderHints NONE = new ProviderHints(null, null, null);
+}
@@ -0,0 +1,97 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.parser.LLM.Data.normalize.BarSeries;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the {@link ProviderAdapter} beans and decodes payloads with the
+ * adapter named by the caller or detected from the payload's first tokens.
+ */
+@Component
+public class ProviderRegistry {
+
+    private final List<ProviderAdapter> adapters;
+    private final Map<String, ProviderAdapter> byId = new LinkedHashMap<>();
+
+    public ProviderRegistry(List<ProviderAdapter> adapters) {
+        this.adapters = List.copyOf(adapters);
+        for (ProviderAdapter adapter : adapters) {
+            byId.put(adapter.id(), adapter);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when no adapter recognizes the payload
+     */
+    public ProviderAdapter detect(PayloadPeek peek) {
+        for (ProviderAdapter adapter : adapters) {
+            if (adapter.supports(peek)) {
+                return adapter;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported JSON shape: payload does not match any provider ("
+                + String.join(", ", byId.keySet()) + ")");
+    }
+
+    /**
+     * @throws IllegalArgumentException when the id is unknown
+     */
+    public ProviderAdapter byId(String id) {
+        ProviderAdapter adapter = byId.get(id.trim().toLowerCase(Locale.US));
+        if (adapter == null) {
+            throw new IllegalArgumentException("Unknown provider '" + id + "': expected one of "
+                    + String.join(", ", byId.keySet()));
+        }
+        return adapter;
+    }
+
+    /**
+     * Creates a decoder for one payload, detecting the provider when {@code providerId} is null.
+     */
+    public TokenDecoder newDecoder(String providerId, ProviderHints hints) {
+        return providerId == null || providerId.isBlank()
+                ? new DetectingDecoder(this, hints, new BarSeries())
+                : byId(providerId).newDecoder(hints, new BarSeries());
+    }
+
+    /**
+     * Reads one root JSON value from the parser and decodes it into a series
+     * tagged with the id of the adapter that decoded it. Anything after the
+     * root value is left unread.
+     */
+    public BarSeries decode(JsonParser parser, String providerId, ProviderHints hints) throws IOException {
+        return decode(parser, providerId, hints, new BarSeries());
+    }
+
+    /**
+     * Like {@link #decode(JsonParser, String, ProviderHints)}, filling the given
+     * series, which may drain its bars as they are decoded.
+     */
+    public BarSeries decode(JsonParser parser, String providerId, ProviderHints hints, BarSeries series)
+            throws IOException {
+        PayloadDecoder payload = new PayloadDecoder(this, providerId, hints, series);
+        while (parser.nextToken() != null) {
+            if (payload.accept(parser)) {
+                break;
+            }
+        }
+        return payload.finish();
+    }
+
+    /**
+     * Decoder for a payload that arrives in chunks, for callers that must not
+     * block on the body. The provider is detected when {@code providerId} is null.
+     */
+    public ChunkedDecoder newChunkedDecoder(JsonFactory factory, String providerId, ProviderHints hints,
+                                           BarSeries series) throws IOException {
+        return new ChunkedDecoder(factory, new PayloadDecoder(this, providerId, hints, series));
+    }
+}
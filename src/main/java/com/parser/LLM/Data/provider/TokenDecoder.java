@@ -0,0 +1,28 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.parser.LLM.Data.normalize.BarSeries;
+
+import java.io.IOException;
+
+/**
+ * Push-style decoder for one provider payload.
+ *
+ * The caller advances the parser and hands over every token of the root value
+ * in order, so the same decoder works with blocking parsers, non-blocking
+ * parsers and replayed token buffers.
+ */
+public interface TokenDecoder {
+
+    /**
+     * Consumes the token the parser is currently positioned on.
+     */
+    void accept(JsonParser parser) throws IOException;
+
+    /**
+     * Completes decoding after the root value has been consumed.
+     *
+     * @throws IllegalArgumentException when the payload does not have the expected shape
+     */
+    BarSeries finish();
+}
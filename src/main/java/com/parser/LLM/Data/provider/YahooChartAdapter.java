@@ -0,0 +1,124 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.DecimalParser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Yahoo Finance chart JSON:
+ * {@code {"chart": {"result": [{"meta": {...}, "timestamp": [...],
+ * "indicators": {"quote": [{"open": [...], "high": [...], ...}]}}], "error": null}}}.
+ *
+ * Only the first result is read. UTC timestamps are rendered in the exchange
+ * time zone from "meta", and null entries (halted or missing bars) are skipped.
+ */
+@Component
+public class YahooChartAdapter implements ProviderAdapter {
+
+    @Override
+    public String id() {
+        return "yahoo";
+    }
+
+    @Override
+    public boolean supports(PayloadPeek peek) {
+        return peek.isObjectStartingWith("chart");
+    }
+
+    @Override
+    public TokenDecoder newDecoder(ProviderHints hints, BarSeries series) {
+        return new Decoder(hints, series);
+    }
+
+    private static final class Decoder extends PathTrackingDecoder {
+
+        private final ProviderHints hints;
+        private final BarSeries series;
+
+        private final DoubleColumn time = new DoubleColumn();
+        private final DoubleColumn open = new DoubleColumn();
+        private final DoubleColumn high = new DoubleColumn();
+        private final DoubleColumn low = new DoubleColumn();
+        private final DoubleColumn close = new DoubleColumn();
+        private final DoubleColumn volume = new DoubleColumn();
+
+        private String symbol;
+        private String interval;
+        private String timeZone;
+        private String error;
+
+        Decoder(ProviderHints hints, BarSeries series) {
+            this.hints = hints;
+            this.series = series;
+        }
+
+        @Override
+        protected void onScalar(JsonToken token, JsonParser parser) throws IOException {
+            if (!"chart".equals(field(1))) {
+                return;
+            }
+            if (depth() == 3 && "error".equals(field(2)) && "description".equals(field(3))) {
+                error = textValue(token, parser);
+                return;
+            }
+            if (!"result".equals(field(2)) || index(3) != 0) {
+                return;
+            }
+
+            if (depth() == 5 && "meta".equals(field(4))) {
+                switch (String.valueOf(field(5))) {
+                    case "symbol" -> symbol = textValue(token, parser);
+                    case "dataGranularity" -> interval = textValue(token, parser);
+                    case "exchangeTimezoneName" -> timeZone = textValue(token, parser);
+                    default -> {
+                    }
+                }
+            } else if (depth() == 5 && "timestamp".equals(field(4))) {
+                long t = longValue(token, parser);
+                time.add(t == DecimalParser.INVALID ? Double.NaN : t);
+            } else if (depth() == 8 && index(6) == 0 && "quote".equals(field(5)) && "indicators".equals(field(4))) {
+                switch (String.valueOf(field(7))) {
+                    case "open" -> open.add(doubleValue(token, parser));
+                    case "high" -> high.add(doubleValue(token, parser));
+                    case "low" -> low.add(doubleValue(token, parser));
+                    case "close" -> close.add(doubleValue(token, parser));
+                    case "volume" -> {
+                        long v = roundedLongValue(token, parser);
+                        volume.add(v == DecimalParser.INVALID ? Double.NaN : v);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        @Override
+        public BarSeries finish() {
+            if (error != null && time.size() == 0) {
+                throw new IllegalArgumentException("Yahoo returned no data: " + error);
+            }
+
+            ZoneClock clock = timeZone != null ? ZoneClock.of(timeZone) : ZoneClock.forHints(hints);
+            int rows = Math.min(time.size(), Math.min(Math.min(open.size(), high.size()),
+                    Math.min(Math.min(low.size(), close.size()), volume.size())));
+            series.ensureCapacity(rows);
+            for (int i = 0; i < rows; i++) {
+                double t = time.get(i);
+                if (!Double.isFinite(t) || !Double.isFinite(open.get(i)) || !Double.isFinite(high.get(i))
+                        || !Double.isFinite(low.get(i)) || !Double.isFinite(close.get(i))
+                        || !Double.isFinite(volume.get(i))) {
+                    // Skip malformed rows instead of failing the whole request
+                    series.skip();
+                    continue;
+                }
+                series.add(clock.toWallClock((long) t), open.get(i), high.get(i), low.get(i), close.get(i),
+                        (long) volume.get(i));
+            }
+            return EpochSeries.describe(series, "Yahoo", symbol, interval, clock.zoneId(), hints);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.parser.LLM.Data.provider;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Converts UTC epoch seconds into wall-clock epoch seconds of a time zone.
+ *
+ * The offset is cached together with the range between the surrounding zone
+ * transitions, so a series only consults the zone rules once per DST period
+ * rather than once per bar.
+ */
+final class ZoneClock {
+
+    static final String UTC = "UTC";
+
+    private final String zoneId;
+    private final ZoneRules rules;
+    private long validFrom = Long.MAX_VALUE;
+    private long validUntil = Long.MIN_VALUE;
+    private int offsetSeconds;
+
+    private ZoneClock(String zoneId, ZoneRules rules) {
+        this.zoneId = zoneId;
+        this.rules = rules;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the id is not a known time zone
+     */
+    static ZoneClock of(String zoneId) {
+        try {
+            return new ZoneClock(zoneId, ZoneId.of(zoneId).getRules());
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Unknown time zone '" + zoneId + "'", ex);
+        }
+    }
+
+    /**
+     * The hinted time zone if any, otherwise UTC.
+     */
+    static ZoneClock forHints(ProviderHints hints) {
+        return of(hints.timeZone() != null ? hints.timeZone() : UTC);
+    }
+
+    String zoneId() {
+        return zoneId;
+    }
+
+    long toWallClock(long utcSeconds) {
+        if (utcSeconds < validFrom || utcSeconds >= validUntil) {
+            Instant instant = Instant.ofEpochSecond(utcSeconds);
+            offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+        return utcSeconds + offsetSeconds;
+    }
+}
@@ -0,0 +1,174 @@
+package com.parser.LLM.Data.store;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local, append-only store of normalized bars, so that a history uploaded
+ * again adds only its new bars and stays readable without the provider
+ * payload. Each symbol and interval is a {@link StoredSeries} under
+ * {@code llm-data.store.directory}; nothing outside that directory is needed.
+ *
+ * Writes go to memory-mapped segments and reach the disk with the page cache;
+ * the segments are forced when the application stops. Bars that arrive in a
+ * different time zone than the stored ones are rejected, since their epochs are
+ * wall-clock seconds in that zone. Counts of what happened to appended bars are
+ * published as {@code llm.store.bars}, tagged by {@code outcome}.
+ *
+ * Symbols are looked up without regard to case, as tickers are, so that "aapl"
+ * and "AAPL" are one series and one directory on any file system. A series
+ * keeps the spelling it was first stored with.
+ */
+@Component
+public class BarStore implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BarStore.class);
+
+    private final StoreProperties properties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Key, StoredSeries> open = new ConcurrentHashMap<>();
+
+    public BarStore(StoreProperties properties, MeterRegistry registry) {
+        if (properties.segmentBars() <= 0 || Segment.fileSize(properties.segmentBars()) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("llm-data.store.segment-bars must be between 1 and "
+                    + (Integer.MAX_VALUE - Segment.HEADER_BYTES) / Segment.BAR_BYTES);
+        }
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Stores the bars of {@code series} that are new for its symbol and interval.
+     * A series without symbol or interval is not stored. The store is optional,
+     * so a failure to write it, such as a full disk, is logged and counted as
+     * {@code failed} rather than thrown at the caller.
+     *
+     * @param series bars oldest first, see {@link BarSeries#order}
+     */
+    public void append(BarSeries series) {
+        if (isBlank(series.symbol()) || isBlank(series.interval()) || series.size() == 0) {
+            return;
+        }
+        try {
+            store(series);
+        } catch (IOException | UncheckedIOException | InternalError ex) {
+            // A write to a mapped segment that cannot get disk space surfaces as InternalError
+            log.warn("Could not store bars of {} at {}", series.symbol(), series.interval(), ex);
+            count("failed", series.size());
+        }
+    }
+
+    private void store(BarSeries series) throws IOException {
+        StoredSeries stored;
+        try {
+            stored = open.computeIfAbsent(Key.of(series.symbol(), series.interval()), key -> {
+                Path directory = directory(key);
+                try {
+                    return Files.exists(directory.resolve(StoredSeries.META_FILE))
+                            ? StoredSeries.open(directory, properties.segmentBars())
+                            : StoredSeries.create(directory, series, properties.segmentBars());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (!Objects.equals(stored.timeZone(), series.timeZone()) || stored.dateLabels() != series.dateLabels()) {
+            count("rejected", series.size());
+            return;
+        }
+        StoredSeries.Appended appended = stored.append(series);
+        count("appended", appended.appended());
+        count("updated", appended.updated());
+        count("duplicate", appended.duplicates());
+    }
+
+    /**
+     * The stored series for {@code symbol} and {@code interval}, {@code null}
+     * if nothing was stored for them.
+     */
+    public StoredSeries find(String symbol, String interval) throws IOException {
+        if (isBlank(symbol) || isBlank(interval)) {
+            return null;
+        }
+        Key key = Key.of(symbol, interval);
+        StoredSeries stored = open.get(key);
+        if (stored != null) {
+            return stored;
+        }
+        Path directory = directory(key);
+        if (!Files.exists(directory.resolve(StoredSeries.META_FILE))) {
+            return null;
+        }
+        try {
+            return open.computeIfAbsent(key, k -> {
+                try {
+                    return StoredSeries.open(directory, properties.segmentBars());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        open.values().forEach(StoredSeries::force);
+    }
+
+    private Path directory(Key key) {
+        return properties.directory().resolve(fileName(key.symbol())).resolve(fileName(key.interval()));
+    }
+
+    /**
+     * {@code value} as one path element: URL-encoded, with a leading dot
+     * escaped so that "." and ".." stay inside the store.
+     */
+    static String fileName(String value) {
+        String encoded = URLEncoder.encode(value, StandardCharsets.UTF_8);
+        return encoded.startsWith(".") ? "%2E" + encoded.substring(1) : encoded;
+    }
+
+    private void count(String outcome, int bars) {
+        if (bars > 0) {
+            registry.counter("llm.store.bars", "outcome", outcome).increment(bars);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Symbol in upper case and interval as given; normalized interval labels are
+     * already lower case, and "1m" and "1mo" differ by more than case.
+     */
+    private record Key(String symbol, String interval) {
+
+        static Key of(String symbol, String interval) {
+            return new Key(symbol.toUpperCase(Locale.ROOT), interval);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.parser.LLM.Data.store;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One segment file of a stored series: a fixed number of bar slots, ascending
+ * by epoch, laid out column by column and memory-mapped.
+ *
+ * <pre>
+ * header   magic "LLMB", version, capacity, count, then zeros up to {@value #HEADER_BYTES} bytes
+ * epoch    capacity longs
+ * open     capacity doubles
+ * high     capacity doubles
+ * low      capacity doubles
+ * close    capacity doubles
+ * volume   capacity longs
+ * </pre>
+ *
+ * All values are little endian. A bar's slots are written before the count is
+ * raised, so a file cut short by a crash still holds {@code count} whole bars.
+ * Not thread-safe; {@link StoredSeries} guards access.
+ */
+final class Segment {
+
+    static final String SUFFIX = ".seg";
+
+    static final int HEADER_BYTES = 64;
+
+    static final int EPOCH = 0;
+    static final int OPEN = 1;
+    static final int HIGH = 2;
+    static final int LOW = 3;
+    static final int CLOSE = 4;
+    static final int VOLUME = 5;
+    private static final int COLUMNS = 6;
+
+    /** Bytes one bar takes across the columns. */
+    static final int BAR_BYTES = COLUMNS * Long.BYTES;
+
+    private static final int MAGIC = 0x424D4C4C;
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 12;
+
+    private final MappedByteBuffer map;
+    private final int capacity;
+    private int count;
+
+    private Segment(MappedByteBuffer map, int capacity, int count) {
+        this.map = map;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) capacity * BAR_BYTES;
+    }
+
+    static Segment create(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, capacity);
+            map.putInt(COUNT_OFFSET, 0);
+            return new Segment(map, capacity, 0);
+        }
+    }
+
+    /**
+     * Maps an existing segment.
+     *
+     * @throws IOException if the file is not a segment of this version
+     */
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a bar segment: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            int capacity = header.getInt(8);
+            int count = header.getInt(COUNT_OFFSET);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || capacity <= 0
+                    || count < 0 || count > capacity || size != fileSize(capacity)) {
+                throw new IOException("Not a bar segment: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            return new Segment(map, capacity, count);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean full() {
+        return count == capacity;
+    }
+
+    long firstEpoch() {
+        return epoch(0);
+    }
+
+    long lastEpoch() {
+        return epoch(count - 1);
+    }
+
+    long epoch(int i) {
+        return map.getLong(offset(EPOCH, i));
+    }
+
+    double open(int i) {
+        return map.getDouble(offset(OPEN, i));
+    }
+
+    double high(int i) {
+        return map.getDouble(offset(HIGH, i));
+    }
+
+    double low(int i) {
+        return map.getDouble(offset(LOW, i));
+    }
+
+    double close(int i) {
+        return map.getDouble(offset(CLOSE, i));
+    }
+
+    long volume(int i) {
+        return map.getLong(offset(VOLUME, i));
+    }
+
+    /**
+     * Index of the bar at {@code epochSeconds} among the first {@code count}, or
+     * {@code -(insertion point) - 1} as {@link java.util.Arrays#binarySearch(long[], long)}
+     * returns.
+     */
+    int search(long epochSeconds, int count) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long epoch = epoch(mid);
+            if (epoch < epochSeconds) {
+                lo = mid + 1;
+            } else if (epoch > epochSeconds) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Adds a bar after the last one; the caller keeps epochs ascending and
+     * checks {@link #full()}.
+     */
+    void append(long epochSeconds, double open, double high, double low, double close, long volume) {
+        set(count, epochSeconds, open, high, low, close, volume);
+        count++;
+        map.putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Overwrites bar {@code i}, e.g. the last bar of a series while it is still
+     * forming.
+     */
+    void set(int i, long epochSeconds, double open, double high, double low, double close, long volume) {
+        map.putLong(offset(EPOCH, i), epochSeconds);
+        map.putDouble(offset(OPEN, i), open);
+        map.putDouble(offset(HIGH, i), high);
+        map.putDouble(offset(LOW, i), low);
+        map.putDouble(offset(CLOSE, i), close);
+        map.putLong(offset(VOLUME, i), volume);
+    }
+
+    /**
+     * Writes dirty pages to disk.
+     */
+    void force() {
+        map.force();
+    }
+
+    private int offset(int column, int i) {
+        return HEADER_BYTES + (column * capacity + i) * Long.BYTES;
+    }
+}
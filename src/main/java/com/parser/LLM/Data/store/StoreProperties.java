@@ -0,0 +1,20 @@
+package com.parser.LLM.Data.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the local bar store ({@code llm-data.store.*}).
+ *
+ * @param enabled      whether normalized bars are kept on disk at all
+ * @param directory    root directory; one subdirectory per symbol and interval
+ * @param segmentBars  bar slots per segment file, 48 bytes each
+ */
+@ConfigurationProperties("llm-data.store")
+public record StoreProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/bars") Path directory,
+        @DefaultValue("16384") int segmentBars) {
+}
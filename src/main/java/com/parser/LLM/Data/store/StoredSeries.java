@@ -0,0 +1,474 @@
+package com.parser.LLM.Data.store;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.BarSink;
+import com.parser.LLM.Data.normalize.SortOrder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * The stored bars of one symbol and interval: a directory with a
+ * {@value #META_FILE} header and {@link Segment} files named by their first
+ * epoch. Segments are ascending and never overlap, so they and the bars in
+ * them form one sorted index by epoch.
+ *
+ * Newer bars are appended to the last segment. Older bars that are missing,
+ * before the first stored one or in a gap of a range stored before, are merged
+ * into the segment whose range they fall in, which is rewritten as full
+ * segments; bars already stored are kept, except the last, which may still be
+ * forming and is overwritten in place. The new segments are written to
+ * temporary files and forced before {@value #REWRITE_FILE} records the
+ * rewrite; only then are they moved into place and the old file removed. An
+ * interrupted rewrite is undone by {@link #open} when it was not recorded yet
+ * and finished when it was, so the old bars are never lost.
+ *
+ * Appends are serialized. A read takes the segments and their counts under
+ * the lock and then reads the mapped columns without it, so a slow reader
+ * never holds up an append. Rewritten segments are new mappings, so a reader
+ * keeps seeing the segments it took; only the last bar may be overwritten
+ * while it is read.
+ */
+public final class StoredSeries {
+
+    static final String META_FILE = "series.properties";
+
+    static final String REWRITE_FILE = "rewrite.properties";
+
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final String symbol;
+    private final String interval;
+    private final String timeZone;
+    private final boolean dateLabels;
+    private final int segmentBars;
+    private final List<Segment> segments;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private StoredSeries(Path directory, String symbol, String interval, String timeZone, boolean dateLabels,
+                         int segmentBars, List<Segment> segments) {
+        this.directory = directory;
+        this.symbol = symbol;
+        this.interval = interval;
+        this.timeZone = timeZone;
+        this.dateLabels = dateLabels;
+        this.segmentBars = segmentBars;
+        this.segments = segments;
+    }
+
+    /**
+     * Creates the directory and header for a series described like {@code series}.
+     */
+    static StoredSeries create(Path directory, BarSeries series, int segmentBars) throws IOException {
+        Files.createDirectories(directory);
+        Properties meta = new Properties();
+        meta.setProperty("symbol", series.symbol());
+        meta.setProperty("interval", series.interval());
+        meta.setProperty("timeZone", series.timeZone());
+        meta.setProperty("dateLabels", Boolean.toString(series.dateLabels()));
+        store(meta, directory.resolve(META_FILE));
+        return new StoredSeries(directory, series.symbol(), series.interval(), series.timeZone(),
+                series.dateLabels(), segmentBars, new ArrayList<>());
+    }
+
+    /**
+     * Maps the segments of an existing series. A recorded rewrite is finished
+     * and the temporary files of one that was not recorded are removed, as are
+     * segments left empty by an interrupted append.
+     */
+    static StoredSeries open(Path directory, int segmentBars) throws IOException {
+        Properties meta = load(directory.resolve(META_FILE));
+        Path rewrite = directory.resolve(REWRITE_FILE);
+        if (Files.exists(rewrite)) {
+            Properties pending = load(rewrite);
+            finishRewrite(directory, pending.getProperty("replaces"),
+                    List.of(pending.getProperty("segments").split(" ")));
+        }
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                    continue;
+                }
+                if (!name.endsWith(Segment.SUFFIX)) {
+                    continue;
+                }
+                Segment segment = Segment.open(file);
+                if (segment.count() == 0) {
+                    Files.delete(file);
+                } else {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::firstEpoch));
+        return new StoredSeries(directory, meta.getProperty("symbol"), meta.getProperty("interval"),
+                meta.getProperty("timeZone"), Boolean.parseBoolean(meta.getProperty("dateLabels")), segmentBars,
+                segments);
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public String interval() {
+        return interval;
+    }
+
+    public String timeZone() {
+        return timeZone;
+    }
+
+    public boolean dateLabels() {
+        return dateLabels;
+    }
+
+    /**
+     * Stored bars.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Segment segment : segments) {
+                size += segment.count();
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hands the header and all stored bars, oldest first, to {@code sink}.
+     */
+    public void replay(BarSink sink) {
+        replay(Long.MIN_VALUE, Long.MAX_VALUE, 0, SortOrder.ASC, sink);
+    }
+
+    /**
+     * Hands the header and the stored bars from {@code from} to {@code to}, both
+     * inclusive wall-clock epoch seconds, to {@code sink} in {@code order}. With
+     * {@code last} above 0 only the newest {@code last} bars of the range are
+     * written. Both ends are found by binary search, first over the segments and
+     * then over the epochs within one, and the bars are read straight from the
+     * mapped columns.
+     *
+     * @return the number of bars written
+     */
+    public int replay(long from, long to, int last, SortOrder order, BarSink sink) {
+        Segment[] view;
+        int[] offsets;
+        lock.readLock().lock();
+        try {
+            view = segments.toArray(new Segment[0]);
+            offsets = new int[view.length + 1];
+            for (int i = 0; i < view.length; i++) {
+                offsets[i + 1] = offsets[i] + view[i].count();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int start = lowerBound(view, offsets, from);
+        int end = to == Long.MAX_VALUE ? offsets[view.length] : lowerBound(view, offsets, to + 1);
+        if (last > 0 && end - start > last) {
+            start = end - last;
+        }
+        sink.describe(symbol, interval, timeZone, dateLabels);
+        if (start >= end) {
+            return 0;
+        }
+        if (order == SortOrder.ASC) {
+            int s = segmentOf(offsets, start);
+            for (int g = start; g < end; g++) {
+                if (g == offsets[s + 1]) {
+                    s++;
+                }
+                add(view[s], g - offsets[s], sink);
+            }
+        } else {
+            int s = segmentOf(offsets, end - 1);
+            for (int g = end - 1; g >= start; g--) {
+                if (g < offsets[s]) {
+                    s--;
+                }
+                add(view[s], g - offsets[s], sink);
+            }
+        }
+        return end - start;
+    }
+
+    /**
+     * Adds the bars of {@code series} that are not stored yet.
+     *
+     * @param series bars oldest first, one per epoch, in this series' time zone
+     */
+    Appended append(BarSeries series) throws IOException {
+        lock.writeLock().lock();
+        try {
+            int n = series.size();
+            if (segments.isEmpty()) {
+                writeSegments(series, 0, n, 0);
+                return new Appended(n, 0, 0);
+            }
+
+            long last = segments.get(segments.size() - 1).lastEpoch();
+            int[] missing = new int[n];
+            int inserted = 0;
+            int duplicates = 0;
+            int i = 0;
+            for (; i < n && series.epoch(i) < last; i++) {
+                long epoch = series.epoch(i);
+                Segment segment = segments.get(segmentFor(epoch));
+                if (epoch >= segment.firstEpoch() && segment.search(epoch, segment.count()) >= 0) {
+                    duplicates++;
+                } else {
+                    missing[inserted++] = i;
+                }
+            }
+            // From the newest segment down, so the indices of those still to rewrite stay put
+            for (int end = inserted; end > 0; ) {
+                int index = segmentFor(series.epoch(missing[end - 1]));
+                int start = end - 1;
+                while (start > 0 && segmentFor(series.epoch(missing[start - 1])) == index) {
+                    start--;
+                }
+                rewrite(index, series, missing, start, end);
+                end = start;
+            }
+
+            Segment tail = segments.get(segments.size() - 1);
+            int updated = 0;
+            if (i < n && series.epoch(i) == last) {
+                if (sameBar(tail, tail.count() - 1, series, i)) {
+                    duplicates++;
+                } else {
+                    tail.set(tail.count() - 1, series.epoch(i), series.open(i), series.high(i), series.low(i),
+                            series.close(i), series.volume(i));
+                    updated++;
+                }
+                i++;
+            }
+
+            int appended = inserted + n - i;
+            for (; i < n; i++) {
+                if (tail.full()) {
+                    tail = Segment.create(segmentPath(series.epoch(i)), segmentBars);
+                    segments.add(tail);
+                }
+                tail.append(series.epoch(i), series.open(i), series.high(i), series.low(i), series.close(i),
+                        series.volume(i));
+            }
+            return new Appended(appended, updated, duplicates);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void force() {
+        lock.readLock().lock();
+        try {
+            segments.forEach(Segment::force);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes {@code series[from, to)} into new segments inserted at {@code index}.
+     */
+    private void writeSegments(BarSeries series, int from, int to, int index) throws IOException {
+        for (int start = from; start < to; start += segmentBars) {
+            Segment segment = Segment.create(segmentPath(series.epoch(start)), segmentBars);
+            int end = Math.min(to, start + segmentBars);
+            for (int i = start; i < end; i++) {
+                segment.append(series.epoch(i), series.open(i), series.high(i), series.low(i), series.close(i),
+                        series.volume(i));
+            }
+            segments.add(index++, segment);
+        }
+    }
+
+    /**
+     * Replaces segment {@code index} with full segments holding its bars and
+     * {@code series} at {@code missing[from, to)}, which are not stored yet and
+     * fall before the next segment.
+     */
+    private void rewrite(int index, BarSeries series, int[] missing, int from, int to) throws IOException {
+        Segment old = segments.get(index);
+        List<Segment> merged = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        Segment segment = null;
+        int a = 0;
+        int b = from;
+        while (a < old.count() || b < to) {
+            boolean fromOld = b == to || (a < old.count() && old.epoch(a) < series.epoch(missing[b]));
+            long epoch = fromOld ? old.epoch(a) : series.epoch(missing[b]);
+            if (segment == null || segment.full()) {
+                String name = epoch + Segment.SUFFIX;
+                Path temp = directory.resolve(name + TEMP_SUFFIX);
+                // Left behind if an earlier rewrite failed halfway
+                Files.deleteIfExists(temp);
+                segment = Segment.create(temp, segmentBars);
+                merged.add(segment);
+                names.add(name);
+            }
+            if (fromOld) {
+                segment.append(epoch, old.open(a), old.high(a), old.low(a), old.close(a), old.volume(a));
+                a++;
+            } else {
+                int j = missing[b++];
+                segment.append(epoch, series.open(j), series.high(j), series.low(j), series.close(j),
+                        series.volume(j));
+            }
+        }
+        merged.forEach(Segment::force);
+
+        // From here on open() finishes the rewrite if it is interrupted
+        Properties pending = new Properties();
+        pending.setProperty("replaces", old.firstEpoch() + Segment.SUFFIX);
+        pending.setProperty("segments", String.join(" ", names));
+        store(pending, directory.resolve(REWRITE_FILE));
+        finishRewrite(directory, pending.getProperty("replaces"), names);
+        segments.remove(index);
+        segments.addAll(index, merged);
+    }
+
+    /**
+     * Moves the temporary files of a recorded rewrite into place, removes the
+     * segment they replace and then the record. Repeating it after an
+     * interruption completes what is left.
+     */
+    private static void finishRewrite(Path directory, String replaced, List<String> names) throws IOException {
+        for (String name : names) {
+            Path temp = directory.resolve(name + TEMP_SUFFIX);
+            if (Files.exists(temp)) {
+                Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (!names.contains(replaced)) {
+            Files.deleteIfExists(directory.resolve(replaced));
+        }
+        Files.delete(directory.resolve(REWRITE_FILE));
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    /**
+     * Writes {@code properties} to a temporary file and moves it over {@code file}.
+     */
+    private static void store(Properties properties, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The last segment starting at or before {@code epoch}, or the first when
+     * {@code epoch} is older than all of them.
+     */
+    private int segmentFor(long epoch) {
+        int lo = 0;
+        int hi = segments.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segments.get(mid).firstEpoch() <= epoch) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Position, counted over all segments, of the first bar at or after {@code epoch}.
+     */
+    private static int lowerBound(Segment[] view, int[] offsets, long epoch) {
+        int lo = 0;
+        int hi = view.length;
+        // First segment whose last bar is not before epoch
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int count = offsets[mid + 1] - offsets[mid];
+            if (view[mid].epoch(count - 1) < epoch) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo == view.length) {
+            return offsets[lo];
+        }
+        int i = view[lo].search(epoch, offsets[lo + 1] - offsets[lo]);
+        return offsets[lo] + (i >= 0 ? i : -i - 1);
+    }
+
+    /**
+     * The segment holding position {@code g}.
+     */
+    private static int segmentOf(int[] offsets, int g) {
+        int i = Arrays.binarySearch(offsets, g);
+        if (i < 0) {
+            return -i - 2;
+        }
+        // Skip segments that end right at g
+        while (offsets[i + 1] == g) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void add(Segment segment, int i, BarSink sink) {
+        sink.add(segment.epoch(i), segment.open(i), segment.high(i), segment.low(i), segment.close(i),
+                segment.volume(i));
+    }
+
+    private Path segmentPath(long firstEpoch) {
+        return directory.resolve(firstEpoch + Segment.SUFFIX);
+    }
+
+    private static boolean sameBar(Segment segment, int i, BarSeries series, int j) {
+        return Double.compare(segment.open(i), series.open(j)) == 0
+                && Double.compare(segment.high(i), series.high(j)) == 0
+                && Double.compare(segment.low(i), series.low(j)) == 0
+                && Double.compare(segment.close(i), series.close(j)) == 0
+                && segment.volume(i) == series.volume(j);
+    }
+
+    /**
+     * What an append did with the bars it was given.
+     *
+     * @param appended   bars added, after the last stored one or where missing before it
+     * @param updated    last bar overwritten with new values
+     * @param duplicates bars already stored
+     */
+    record Appended(int appended, int updated, int duplicates) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.parser.LLM.Data;
+
+import com.parser.LLM.Data.fixtures.PayloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Slow uploads, as ingestion agents send them, must not starve other clients.
+ *
+ * Tomcat is capped at {@value #PLATFORM_THREADS} platform threads and more
+ * slow uploads than that trickle in at once. A servlet thread is held while it
+ * waits for the body, so on platform threads a quick request queues until a
+ * slow upload finishes. On virtual threads the cap no longer applies and the
+ * quick request is answered while the uploads are still in progress.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=" + SlowUploadLoadTests.PLATFORM_THREADS,
+        "server.tomcat.threads.min-spare=" + SlowUploadLoadTests.PLATFORM_THREADS,
+        "llm-data.cache.enabled=false"})
+@EnabledForJreRange(min = JRE.JAVA_21)
+class SlowUploadLoadTests {
+
+    static final int PLATFORM_THREADS = 4;
+    private static final int SLOW_CLIENTS = 4 * PLATFORM_THREADS;
+    private static final int CHUNKS = 10;
+    private static final long CHUNK_DELAY_MS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void quickRequestIsServedWhileSlowUploadsAreInProgress() throws Exception {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        new PayloadGenerator(PayloadGenerator.Spec.of(PayloadGenerator.Vendor.BINANCE, 2_000)).write(payload);
+        byte[] body = payload.toByteArray();
+
+        ExecutorService clients = Executors.newFixedThreadPool(SLOW_CLIENTS);
+        try {
+            List<Future<String>> slow = new ArrayList<>();
+            for (int i = 0; i < SLOW_CLIENTS; i++) {
+                slow.add(clients.submit(() -> upload(body, CHUNKS, CHUNK_DELAY_MS)));
+            }
+            // Let every slow upload get its headers in and start waiting for the body
+            Thread.sleep(2 * CHUNK_DELAY_MS);
+
+            long start = System.nanoTime();
+            assertThat(upload(body, 1, 0)).startsWith("HTTP/1.1 200");
+            long quickMs = (System.nanoTime() - start) / 1_000_000;
+
+            for (Future<String> response : slow) {
+                assertThat(response.get()).startsWith("HTTP/1.1 200");
+            }
+            // On platform threads the quick request waits for the remainder of a slow upload
+            assertThat(quickMs).isLessThan(CHUNKS * CHUNK_DELAY_MS / 2);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Posts {@code body} in {@code chunks} slices, {@code delayMs} apart, and
+     * returns the response status line.
+     */
+    private String upload(byte[] body, int chunks, long delayMs) throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            String head = "POST /api/llm-data/normalize?symbol=IBM&interval=5m HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + "Content-Length: " + body.length + "\r\n"
+                    + "Connection: close\r\n\r\n";
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            int slice = (body.length + chunks - 1) / chunks;
+            for (int from = 0; from < body.length; from += slice) {
+                Thread.sleep(delayMs);
+                out.write(body, from, Math.min(slice, body.length - from));
+                out.flush();
+            }
+
+            InputStream in = socket.getInputStream();
+            StringBuilder status = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1 && b != '\r') {
+                status.append((char) b);
+            }
+            in.transferTo(OutputStream.nullOutputStream());
+            return status.toString();
+        }
+    }
+}
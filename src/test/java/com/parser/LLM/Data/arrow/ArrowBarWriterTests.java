@@ -0,0 +1,111 @@
+package com.parser.LLM.Data.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampSecVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArrowBarWriterTests {
+
+    private final BufferAllocator allocator = new RootAllocator();
+
+    @AfterEach
+    void closeAllocator() {
+        // Fails when a writer leaked column buffers
+        allocator.close();
+    }
+
+    @Test
+    void writesSeriesInFixedSizeBatches() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArrowBarWriter writer = ArrowBarWriter.series(allocator, 2, out)) {
+            writer.describe("IBM", "1d", "US/Eastern", true);
+            for (int i = 0; i < 5; i++) {
+                writer.add(86_400L * i, 10 + i, 11 + i, 9 + i, 10.5 + i, 100L * i);
+            }
+            writer.finish();
+            assertThat(writer.bars()).isEqualTo(5);
+        }
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema().getCustomMetadata())
+                    .containsEntry("s", "IBM").containsEntry("i", "1d").containsEntry("tz", "US/Eastern");
+
+            List<Integer> batches = new ArrayList<>();
+            List<Long> timestamps = new ArrayList<>();
+            double lastClose = 0;
+            long lastVolume = 0;
+            while (reader.loadNextBatch()) {
+                batches.add(root.getRowCount());
+                TimeStampSecVector timestamp = (TimeStampSecVector) root.getVector("timestamp");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    timestamps.add(timestamp.get(i));
+                }
+                lastClose = ((Float8Vector) root.getVector("close")).get(root.getRowCount() - 1);
+                lastVolume = ((BigIntVector) root.getVector("volume")).get(root.getRowCount() - 1);
+            }
+            assertThat(batches).containsExactly(2, 2, 1);
+            assertThat(timestamps).containsExactly(0L, 86_400L, 172_800L, 259_200L, 345_600L);
+            assertThat(lastClose).isEqualTo(14.5);
+            assertThat(lastVolume).isEqualTo(400L);
+        }
+    }
+
+    @Test
+    void tagsRowsWithTheirLineAndReportsFailedLines() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArrowBarWriter writer = ArrowBarWriter.lines(allocator, 16, out)) {
+            writer.line(1);
+            writer.describe("IBM", "5m", "US/Eastern", false);
+            writer.add(60, 1, 2, 0.5, 1.5, 10);
+            writer.error(2, "Malformed JSON");
+            writer.line(3);
+            writer.describe("BNBBTC", "1m", "UTC", false);
+            writer.add(120, 3, 4, 2.5, 3.5, 20);
+            writer.finish();
+        }
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(reader.loadNextBatch()).isTrue();
+            assertThat(root.getRowCount()).isEqualTo(3);
+
+            IntVector line = (IntVector) root.getVector("line");
+            VarCharVector symbol = (VarCharVector) root.getVector("symbol");
+            VarCharVector error = (VarCharVector) root.getVector("error");
+            Float8Vector close = (Float8Vector) root.getVector("close");
+            assertThat(line.get(0)).isEqualTo(1);
+            assertThat(symbol.getObject(0)).hasToString("IBM");
+            assertThat(error.isNull(0)).isTrue();
+            assertThat(line.get(1)).isEqualTo(2);
+            assertThat(error.getObject(1)).hasToString("Malformed JSON");
+            assertThat(close.isNull(1)).isTrue();
+            assertThat(symbol.getObject(2)).hasToString("BNBBTC");
+            assertThat(close.get(2)).isEqualTo(3.5);
+            assertThat(reader.loadNextBatch()).isFalse();
+        }
+    }
+
+    @Test
+    void refusesToFinishUndescribedSeries() {
+        try (ArrowBarWriter writer = ArrowBarWriter.series(allocator, 2, new ByteArrayOutputStream())) {
+            assertThatThrownBy(writer::finish).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.parser.LLM.Data.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XxHash64Tests {
+
+    @Test
+    void matchesReferenceVectors() {
+        assertThat(hash("")).isEqualTo(0xEF46DB3751D8E999L);
+        assertThat(hash("a")).isEqualTo(0xD24EC4F1A98C6E5BL);
+        assertThat(hash("abc")).isEqualTo(0x44BC2CF5AD770999L);
+        assertThat(hash("Nobody inspects the spammish repetition")).isEqualTo(0xFBCEA83C8A378BF1L);
+    }
+
+    @Test
+    void hashesOnlyTheRequestedRange() {
+        byte[] padded = "xxabcxx".getBytes(StandardCharsets.US_ASCII);
+        assertThat(XxHash64.hash(padded, 2, 3, 0)).isEqualTo(hash("abc"));
+    }
+
+    private static long hash(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+        return XxHash64.hash(bytes, 0, bytes.length, 0);
+    }
+}
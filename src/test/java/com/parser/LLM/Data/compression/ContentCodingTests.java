@@ -0,0 +1,31 @@
+package com.parser.LLM.Data.compression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ContentCodingTests {
+
+    @Test
+    void negotiatesPreferredCodingFromAcceptEncoding() {
+        assertThat(ContentCoding.negotiate(null)).isNull();
+        assertThat(ContentCoding.negotiate("identity")).isNull();
+        assertThat(ContentCoding.negotiate("gzip, deflate, br")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("gzip, zstd")).isEqualTo(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("zstd;q=0.5, gzip")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("zstd;q=0, *")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*;q=0")).isNull();
+        assertThat(ContentCoding.negotiate("GZIP;Q=1")).isEqualTo(ContentCoding.GZIP);
+    }
+
+    @Test
+    void readsContentEncodingOfRequests() {
+        assertThat(ContentCoding.forContentEncoding(null)).isNull();
+        assertThat(ContentCoding.forContentEncoding("identity")).isNull();
+        assertThat(ContentCoding.forContentEncoding("x-gzip")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.forContentEncoding(" Zstd ")).isEqualTo(ContentCoding.ZSTD);
+        assertThatIllegalArgumentException().isThrownBy(() -> ContentCoding.forContentEncoding("gzip, zstd"));
+        assertThatIllegalArgumentException().isThrownBy(() -> ContentCoding.forContentEncoding("br"));
+    }
+}
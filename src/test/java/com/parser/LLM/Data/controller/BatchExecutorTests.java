@@ -0,0 +1,65 @@
+package com.parser.LLM.Data.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchExecutorTests {
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void ignoresVirtualThreadsBeforeJava21() throws IOException {
+        List<Thread> threads = runTwoLines(true);
+
+        // Both lines ran on the one thread of the platform pool
+        assertThat(threads.get(0)).isSameAs(threads.get(1));
+        assertThat(threads.get(0).getName()).startsWith("batch-");
+        assertThat(threads.get(0).isDaemon()).isTrue();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void runsEveryLineOnItsOwnVirtualThreadOnJava21() throws Exception {
+        List<Thread> threads = runTwoLines(true);
+
+        assertThat(threads.get(0)).isNotSameAs(threads.get(1));
+        // Thread.isVirtual() is not in the Java 17 API this is compiled against
+        assertThat(Thread.class.getMethod("isVirtual").invoke(threads.get(0))).isEqualTo(true);
+    }
+
+    @Test
+    void usesThePlatformPoolWithVirtualThreadsOff() throws IOException {
+        List<Thread> threads = runTwoLines(false);
+
+        assertThat(threads.get(0)).isSameAs(threads.get(1));
+        assertThat(threads.get(0).getName()).startsWith("batch-");
+    }
+
+    /**
+     * Runs two lines, one after the other, on an executor with a single pool
+     * thread and returns the threads they ran on.
+     */
+    private static List<Thread> runTwoLines(boolean virtualThreads) throws IOException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        BatchExecutor executor = new BatchExecutor(new BatchProperties(1, 1), environment);
+        try {
+            List<Thread> threads = new ArrayList<>();
+            try (OrderedFanOut<Thread> fanOut = executor.fanOut(threads::add)) {
+                fanOut.submit(Thread::currentThread);
+                fanOut.submit(Thread::currentThread);
+                fanOut.finish();
+            }
+            return threads;
+        } finally {
+            executor.destroy();
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package com.parser.LLM.Data.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.parser.LLM.Data.arrow.ArrowBarWriter;
+import com.parser.LLM.Data.cache.ResponseCache;
+import com.parser.LLM.Data.fixtures.PayloadGenerator;
+import com.parser.LLM.Data.normalize.DeltaDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class LlmDataControllerTests {
+
+    private static final String INTRADAY = """
+            {
+              "Meta Data": {
+                "1. Information": "Intraday (5min) open, high, low, close prices and volume",
+                "2. Symbol": "IBM",
+                "3. Last Refreshed": "2024-01-05 19:55:00",
+                "4. Interval": "5min",
+                "5. Output Size": "Compact",
+                "6. Time Zone": "US/Eastern"
+              },
+              "Time Series (5min)": {
+                "2024-01-05 19:55:00": {
+                  "1. open": "160.0100",
+                  "2. high": "160.2000",
+                  "3. low": "159.9000",
+                  "4. close": "160.1000",
+                  "5. volume": "1200"
+                },
+                "2024-01-05 19:45:00": {
+                  "1. open": "None",
+                  "2. high": "160.0000",
+                  "3. low": "159.5000",
+                  "4. close": "159.8000",
+                  "5. volume": "900"
+                },
+                "2024-01-05 19:50:00": {
+                  "1. open": "159.9000",
+                  "2. high": "160.0500",
+                  "3. low": "159.8500",
+                  "4. close": "160.0100",
+                  "5. volume": "800"
+                }
+              }
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void normalizesIntradaySeriesNewestFirst() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.s").value("IBM"))
+                .andExpect(jsonPath("$.i").value("5m"))
+                .andExpect(jsonPath("$.tz").value("US/Eastern"))
+                .andExpect(jsonPath("$.d", hasSize(2)))
+                .andExpect(jsonPath("$.d[0][0]").value("19:55"))
+                .andExpect(jsonPath("$.d[0][1]").value(160.01))
+                .andExpect(jsonPath("$.d[0][5]").value(1200))
+                .andExpect(jsonPath("$.d[1][0]").value("19:50"));
+    }
+
+    @Test
+    void returnsOldestFirstWhenRequested() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize?order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.d[0][0]").value("19:50"))
+                .andExpect(jsonPath("$.d[1][0]").value("19:55"));
+    }
+
+    @Test
+    void servesRepeatedPayloadFromCache() throws Exception {
+        String payload = INTRADAY.replace("IBM", "CACHED");
+        double hitsBefore = cacheGets("hit");
+
+        String first = mockMvc.perform(post("/api/llm-data/normalize?order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(post("/api/llm-data/normalize?order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.s").value("CACHED"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+
+        // Options are part of the key, so a different order is computed afresh
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.d[0][0]").value("19:55"));
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void downsamplesToRowBudgetAndReportsTokenEstimate() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize?maxRows=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+
+        String body = mockMvc.perform(post("/api/llm-data/normalize?maxRows=4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.d", hasSize(2)))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/llm-data/normalize?maxRows=4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(header().string("X-Token-Estimate", String.valueOf((body.length() + 2) / 3)));
+    }
+
+    @Test
+    void reportsTheSameTokenEstimateWithOrWithoutTheCache() throws Exception {
+        // A compressed body has no known length, so it bypasses the cache
+        byte[] compressed = Zstd.compress(INTRADAY.getBytes(StandardCharsets.UTF_8));
+        for (String query : List.of("", "?precision=1", "?format=csv", "?format=table&maxTokens=60")) {
+            MvcResult cached = mockMvc.perform(post("/api/llm-data/normalize" + query)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(INTRADAY))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            MvcResult uncached = mockMvc.perform(post("/api/llm-data/normalize" + query)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.CONTENT_ENCODING, "zstd")
+                            .content(compressed))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            String body = cached.getResponse().getContentAsString();
+            assertThat(uncached.getResponse().getContentAsString()).isEqualTo(body);
+            assertThat(uncached.getResponse().getHeader("X-Token-Estimate"))
+                    .isEqualTo(cached.getResponse().getHeader("X-Token-Estimate"));
+            int charsPerToken = query.contains("format=") ? 4 : 3;
+            assertThat(cached.getResponse().getHeader("X-Token-Estimate"))
+                    .isEqualTo(String.valueOf((body.length() + charsPerToken - 1) / charsPerToken));
+        }
+    }
+
+    @Test
+    void recordsStageTimersAndPayloadSizes() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize?symbol=METRICS")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY.replace("IBM", "METRICS")))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("llm.normalize.stage")
+                .tag("provider", "alphavantage").tag("interval", "5m").tag("stage", "parse")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("llm.normalize.skipped.rows")
+                .tag("provider", "alphavantage").summary().totalAmount()).isPositive();
+        assertThat(meterRegistry.get("llm.normalize.response.bytes")
+                .tag("provider", "alphavantage").summary().count()).isPositive();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("llm_normalize_stage_seconds_bucket")));
+        // Profiling is opt-in, see JfrEndpoint
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamsBarsInProviderOrder() throws Exception {
+        // The fixture is already newest first, so the streamed output matches the buffered one
+        String buffered = mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String streamed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(streamed).isEqualTo(buffered);
+
+        mockMvc.perform(post("/api/llm-data/normalize?stream=true&order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsUnsupportedShapeBeforeStreaming() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Time Series (5min)\": {}}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void encodesSameStructureAsCborAndMessagePack() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andReturn().getResponse().getContentAsByteArray());
+
+        byte[] cbor = mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().doesNotExist("X-Token-Estimate"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode fromCbor = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertThat(fromCbor).isEqualTo(json);
+        assertThat(fromCbor.at("/d/0/1").isDouble()).isTrue();
+
+        byte[] msgpack = mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept("application/x-msgpack")
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-msgpack"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new ObjectMapper(new MessagePackFactory()).readTree(msgpack)).isEqualTo(json);
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(INTRADAY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] streamed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(streamed)).isEqualTo(json);
+    }
+
+    @Test
+    void writesArrowRecordBatches() throws Exception {
+        byte[] arrow = mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ArrowBarWriter.MEDIA_TYPE)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ArrowBarWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(arrow), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema().getCustomMetadata()).containsEntry("s", "IBM").containsEntry("i", "5m");
+            assertThat(reader.loadNextBatch()).isTrue();
+            assertThat(root.getRowCount()).isEqualTo(2);
+            // Newest first, as in the JSON response
+            assertThat(((Float8Vector) root.getVector("open")).get(0)).isEqualTo(160.01);
+            assertThat(((BigIntVector) root.getVector("volume")).get(1)).isEqualTo(800L);
+        }
+    }
+
+    @Test
+    void writesBatchLinesAsOneArrowStream() throws Exception {
+        String body = INTRADAY.replace("\n", "") + "\n"
+                + "{\"Meta Data\": \n"
+                + "[[1499040000000, \"1.0\", \"2.0\", \"0.5\", \"1.5\", \"10\"]]\n";
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize/batch?symbol=BNBBTC&interval=1m")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(ArrowBarWriter.MEDIA_TYPE)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] arrow = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(arrow), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(reader.loadNextBatch()).isTrue();
+            assertThat(root.getRowCount()).isEqualTo(4);
+            IntVector line = (IntVector) root.getVector("line");
+            assertThat(List.of(line.get(0), line.get(1), line.get(2), line.get(3))).containsExactly(1, 1, 2, 3);
+            assertThat(root.getVector("error").getObject(2).toString()).startsWith("Malformed JSON");
+            assertThat(root.getVector("symbol").getObject(3)).hasToString("BNBBTC");
+        }
+    }
+
+    @Test
+    void writesTextFormatsForPrompts() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize?format=csv")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().exists("X-Token-Estimate"))
+                .andExpect(content().string("""
+                        # IBM 5m US/Eastern
+                        time,open,high,low,close,volume
+                        19:55,160.01,160.2,159.9,160.1,1200
+                        19:50,159.9,160.05,159.85,160.01,800
+                        """));
+
+        mockMvc.perform(post("/api/llm-data/normalize?format=tsv&precision=1&order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().string("# IBM 5m US/Eastern\n"
+                        + "time\topen\thigh\tlow\tclose\tvolume\n"
+                        + "19:50\t159.9\t160.1\t159.9\t160\t800\n"
+                        + "19:55\t160\t160.2\t159.9\t160.1\t1200\n"));
+
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept("text/markdown")
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("""
+                        |time|open|high|low|close|volume|
+                        |-|-|-|-|-|-|
+                        |19:55|160.01|160.2|159.9|160.1|1200|
+                        """)));
+
+        mockMvc.perform(post("/api/llm-data/normalize?format=yaml")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void roundsPricesToTheRequestedPrecision() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize?precision=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("[\"19:55\",160,160.2,159.9,160.1,1200]")));
+
+        mockMvc.perform(post("/api/llm-data/normalize?significant=3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("[\"19:55\",160,160,160,160,1200]")));
+
+        byte[] cbor = mockMvc.perform(post("/api/llm-data/normalize?precision=0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor).at("/d/0/1").doubleValue()).isEqualTo(160.0);
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize?stream=true&precision=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("[\"19:55\",160,160.2,159.9,160.1,1200]")));
+
+        mockMvc.perform(post("/api/llm-data/normalize?precision=2&significant=3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/llm-data/normalize?precision=13")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/llm-data/normalize?precision=2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ArrowBarWriter.MEDIA_TYPE)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void writesDeltaEncodingThatDecodesToThePlainResponse() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode plain = mapper.readTree(mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andReturn().getResponse().getContentAsString());
+
+        String delta = mockMvc.perform(post("/api/llm-data/normalize?encoding=delta")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tick").value(0.01))
+                .andExpect(jsonPath("$.base").value(16001))
+                .andExpect(jsonPath("$.d[0][4]").value(9))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(DeltaDecoder.toAbsolute(mapper.readTree(delta))).isEqualTo(plain);
+
+        mockMvc.perform(post("/api/llm-data/normalize?encoding=delta&tick=0.05")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/llm-data/normalize?encoding=delta&format=csv")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void keepsInputOrderWhenBatchLinesRunConcurrently() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 50; i++) {
+            body.append(i % 7 == 0 ? "{\"Meta Data\":" : "[[1499040000000, \"" + i + "\", \"" + (i + 1) + "\", \"1\", \"" + i + "\", \"10\"]]")
+                    .append('\n');
+        }
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize/batch?symbol=BNBBTC&interval=1m")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(50);
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i = 1; i <= 50; i++) {
+            JsonNode line = mapper.readTree(lines[i - 1]);
+            if (i % 7 == 0) {
+                assertThat(line.get("line").intValue()).isEqualTo(i);
+            } else {
+                assertThat(line.at("/d/0/1").intValue()).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void decodesCompressedRequestsAndEncodesLargeResponses() throws Exception {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        new PayloadGenerator(PayloadGenerator.Spec.of(PayloadGenerator.Vendor.BINANCE, 500)).write(payload);
+        byte[] body = payload.toByteArray();
+        String plain = mockMvc.perform(post("/api/llm-data/normalize?symbol=BNBBTC&interval=1m")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        }
+        byte[] zstd = Zstd.compress(body);
+        assertThat(gzipped.size()).isLessThan(body.length / 2);
+
+        byte[] zstdResponse = mockMvc.perform(post("/api/llm-data/normalize?symbol=BNBBTC&interval=1m")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.8, zstd")
+                        .content(gzipped.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(new ZstdInputStream(new ByteArrayInputStream(zstdResponse)).readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(plain);
+
+        // Binance sends oldest first, which is the order the stream keeps
+        String oldestFirst = mockMvc.perform(post("/api/llm-data/normalize?symbol=BNBBTC&interval=1m&order=asc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse().getContentAsString();
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize?symbol=BNBBTC&interval=1m&stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "zstd")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .content(zstd))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] gzipResponse = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(gzipResponse)).readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(oldestFirst);
+
+        // Below the minimum size the response is sent as is
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd")
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.s").value("IBM"));
+    }
+
+    @Test
+    void rejectsUnsupportedAndCorruptContentEncoding() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(INTRADAY))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "zstd, gzip"));
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(INTRADAY))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsPayloadWithoutMetaData() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Time Series (5min)\": {}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMalformedJson() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Meta Data\": {"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void normalizesBatchLineByLineAndReportsBadLines() throws Exception {
+        String body = INTRADAY.replace("\n", "") + "\n"
+                + "{\"Meta Data\": \n"
+                + "\n"
+                + "[[1499040000000, \"1.0\", \"2.0\", \"0.5\", \"1.5\", \"10\"]]\n";
+
+        MvcResult started = mockMvc.perform(post("/api/llm-data/normalize/batch?symbol=BNBBTC&interval=1m")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"s\":\"IBM\",\"i\":\"5m\"");
+        assertThat(lines[1]).startsWith("{\"line\":2,\"error\":\"Malformed JSON");
+        assertThat(lines[2]).startsWith("{\"s\":\"BNBBTC\",\"i\":\"1m\",\"tz\":\"UTC\"");
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", ResponseCache.NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,214 @@
+package com.parser.LLM.Data.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.LLM.Data.fixtures.PayloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The non-blocking endpoint against a running server: MockMvc cannot drive
+ * servlet read and write listeners.
+ *
+ * Tomcat is capped at {@value #THREADS} platform threads, fewer than the slow
+ * uploads in flight at once, so a quick request is only answered in time if
+ * no thread waits on a body.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=" + NonBlockingNormalizeTests.THREADS,
+        "server.tomcat.threads.min-spare=" + NonBlockingNormalizeTests.THREADS})
+class NonBlockingNormalizeTests {
+
+    static final int THREADS = 2;
+    private static final int SLOW_CLIENTS = 4 * THREADS;
+    private static final int CHUNKS = 10;
+    private static final long CHUNK_DELAY_MS = 200;
+
+    private static final String INTRADAY = """
+            {"Meta Data": {"2. Symbol": "IBM", "4. Interval": "5min", "6. Time Zone": "US/Eastern"},
+             "Time Series (5min)": {
+               "2024-01-05 19:55:00": {"1. open": "160.01", "2. high": "160.2", "3. low": "159.9", "4. close": "160.1", "5. volume": "1200"},
+               "2024-01-05 19:50:00": {"1. open": "159.9", "2. high": "160.05", "3. low": "159.85", "4. close": "160.01", "5. volume": "800"}
+             }}
+            """;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void emitsRowsAsNdjson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode buffered = mapper.readTree(post("/api/llm-data/normalize", INTRADAY).body());
+
+        HttpResponse<String> response = post("/api/llm-data/normalize/reactive", INTRADAY);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("application/x-ndjson"));
+        String[] lines = response.body().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("{\"s\":\"IBM\",\"i\":\"5m\",\"tz\":\"US/Eastern\"}");
+        assertThat(mapper.readTree(lines[1])).isEqualTo(buffered.at("/d/0"));
+        assertThat(mapper.readTree(lines[2])).isEqualTo(buffered.at("/d/1"));
+    }
+
+    @Test
+    void decodesCompressedBodiesAndLeavesTheResponseUnencoded() throws Exception {
+        String plain = post("/api/llm-data/normalize/reactive", INTRADAY).body();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(INTRADAY.getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/llm-data/normalize/reactive"))
+                        .header("Content-Type", "application/json")
+                        .header("Content-Encoding", "gzip")
+                        .header("Accept-Encoding", "gzip")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(gzip.toByteArray()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(response.body()).isEqualTo(plain);
+
+        HttpResponse<String> corrupt = client.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/llm-data/normalize/reactive"))
+                        .header("Content-Type", "application/json")
+                        .header("Content-Encoding", "gzip")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(Arrays.copyOf(gzip.toByteArray(), 20)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(corrupt.statusCode()).isEqualTo(400);
+    }
+
+    @Test
+    void rejectsBeforeTheFirstRow() throws Exception {
+        assertThat(post("/api/llm-data/normalize/reactive", "{\"Time Series (5min)\": {}}").statusCode())
+                .isEqualTo(400);
+        assertThat(post("/api/llm-data/normalize/reactive", "{\"Meta Data\": ").statusCode())
+                .isEqualTo(400);
+        assertThat(post("/api/llm-data/normalize/reactive?order=asc", INTRADAY).statusCode())
+                .isEqualTo(400);
+    }
+
+    @Test
+    void dropsTheConnectionOnAnErrorAfterTheFirstRow() throws Exception {
+        byte[] head = INTRADAY.substring(0, INTRADAY.indexOf("\"2024-01-05 19:50:00\"")).getBytes(StandardCharsets.UTF_8);
+        byte[] broken = "\"2024-01-05 19:50:00\": ]}}".getBytes(StandardCharsets.UTF_8);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /api/llm-data/normalize/reactive HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + "Content-Length: " + (head.length + broken.length) + "\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(head);
+            out.flush();
+            // The header and the first bar go out while the rest of the body is awaited
+            Thread.sleep(CHUNK_DELAY_MS);
+            out.write(broken);
+            out.flush();
+
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            assertThat(response).startsWith("HTTP/1.1 200");
+            assertThat(response).contains("[\"19:55\",160.01");
+            // No last chunk: the client can tell the rows are incomplete
+            assertThat(response).doesNotEndWith("0\r\n\r\n");
+        }
+    }
+
+    @Test
+    void quickRequestIsServedWhileSlowUploadsAreInProgress() throws Exception {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        new PayloadGenerator(PayloadGenerator.Spec.of(PayloadGenerator.Vendor.BINANCE, 2_000)).write(payload);
+        byte[] body = payload.toByteArray();
+
+        ExecutorService clients = Executors.newFixedThreadPool(SLOW_CLIENTS);
+        try {
+            List<Future<String>> slow = new ArrayList<>();
+            for (int i = 0; i < SLOW_CLIENTS; i++) {
+                slow.add(clients.submit(() -> upload(body, CHUNKS, CHUNK_DELAY_MS)));
+            }
+            // Let every slow upload get its headers in and start waiting for the body
+            Thread.sleep(2 * CHUNK_DELAY_MS);
+
+            long start = System.nanoTime();
+            assertThat(upload(body, 1, 0)).startsWith("HTTP/1.1 200");
+            long quickMs = (System.nanoTime() - start) / 1_000_000;
+
+            for (Future<String> response : slow) {
+                assertThat(response.get()).startsWith("HTTP/1.1 200");
+            }
+            assertThat(quickMs).isLessThan(CHUNKS * CHUNK_DELAY_MS / 2);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Posts {@code body} to the non-blocking endpoint in {@code chunks} slices,
+     * {@code delayMs} apart, and returns the response status line.
+     */
+    private String upload(byte[] body, int chunks, long delayMs) throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            String head = "POST /api/llm-data/normalize/reactive?symbol=IBM&interval=5m HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + "Content-Length: " + body.length + "\r\n"
+                    + "Connection: close\r\n\r\n";
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            int slice = (body.length + chunks - 1) / chunks;
+            for (int from = 0; from < body.length; from += slice) {
+                Thread.sleep(delayMs);
+                out.write(body, from, Math.min(slice, body.length - from));
+                out.flush();
+            }
+
+            InputStream in = socket.getInputStream();
+            StringBuilder status = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1 && b != '\r') {
+                status.append((char) b);
+            }
+            in.transferTo(OutputStream.nullOutputStream());
+            return status.toString();
+        }
+    }
+}
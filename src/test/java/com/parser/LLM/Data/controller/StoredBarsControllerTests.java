@@ -0,0 +1,127 @@
+package com.parser.LLM.Data.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The stored bars endpoint, with the bar store switched on in a directory of
+ * its own; {@link LlmDataControllerTests} covers the default configuration.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StoredBarsControllerTests {
+
+    private static final String INTRADAY = """
+            {
+              "Meta Data": {
+                "2. Symbol": "STORED",
+                "4. Interval": "5min",
+                "6. Time Zone": "US/Eastern"
+              },
+              "Time Series (5min)": {
+                "2024-01-05 19:55:00": {
+                  "1. open": "160.0100",
+                  "2. high": "160.2000",
+                  "3. low": "159.9000",
+                  "4. close": "160.1000",
+                  "5. volume": "1200"
+                },
+                "2024-01-05 19:50:00": {
+                  "1. open": "159.9000",
+                  "2. high": "160.0500",
+                  "3. low": "159.8500",
+                  "4. close": "160.0100",
+                  "5. volume": "800"
+                },
+                "2024-01-05 19:45:00": {
+                  "1. open": "159.7000",
+                  "2. high": "160.0000",
+                  "3. low": "159.5000",
+                  "4. close": "159.8000",
+                  "5. volume": "900"
+                }
+              }
+            }
+            """;
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storeProperties(DynamicPropertyRegistry registry) {
+        registry.add("llm-data.store.enabled", () -> "true");
+        registry.add("llm-data.store.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void servesStoredBarsByRange() throws Exception {
+        String normalized = mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=5m"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(normalized));
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=5m&last=2&order=asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.d", hasSize(2)))
+                .andExpect(jsonPath("$.d[0][0]").value("19:50"))
+                .andExpect(jsonPath("$.d[1][0]").value("19:55"));
+        mockMvc.perform(get("/api/llm-data/bars/STORED")
+                        .param("interval", "5m")
+                        .param("from", "2024-01-05 19:50")
+                        .param("to", "2024-01-05 19:50")
+                        .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("19:50,159.9,160.05,159.85,160.01,800")));
+
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=1h"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/llm-data/bars/STORED"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=5m&from=yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void acceptsIntervalsAsNormalizeSpellsThem() throws Exception {
+        mockMvc.perform(post("/api/llm-data/normalize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTRADAY))
+                .andExpect(status().isOk());
+
+        // Stored as "5m", the label normalize writes
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=5min&last=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.i").value("5m"))
+                .andExpect(jsonPath("$.d[0][0]").value("19:55"));
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=300s&last=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.d", hasSize(1)));
+        mockMvc.perform(get("/api/llm-data/bars/STORED?interval=fortnightly"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,371 @@
+package com.parser.LLM.Data.fixtures;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parser.LLM.Data.normalize.Timestamps;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Writes synthetic provider payloads of any size straight to a stream.
+ *
+ * Prices follow a seeded random walk, so the same {@link Spec} always yields
+ * the same bytes. Nothing is buffered: row-oriented shapes are written bar by
+ * bar, and column-oriented ones (Yahoo, Finnhub) replay the walk once per
+ * column. {@code malformedRate} is the share of bars with a missing price
+ * ("None" for Alpha Vantage, null elsewhere) and {@code disorderRate} the
+ * share of bars swapped with their successor; swapped Alpha Vantage bars also
+ * list their fields in reverse.
+ */
+public final class PayloadGenerator {
+
+    public enum Vendor {
+        ALPHA_VANTAGE, POLYGON, BINANCE, YAHOO, FINNHUB
+    }
+
+    /**
+     * @param intervalSeconds bar spacing; 86400 produces a daily series
+     */
+    public record Spec(Vendor vendor, String symbol, int bars, long intervalSeconds, long seed,
+                       double malformedRate, double disorderRate) {
+
+        public static Spec of(Vendor vendor, int bars) {
+            return new Spec(vendor, "IBM", bars, 300, 42, 0, 0);
+        }
+    }
+
+    private static final long DAY = 86_400L;
+    // 2024-01-02 09:30:00, read as UTC or as exchange wall clock depending on the vendor
+    private static final long START = 1_704_187_800L;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Spec spec;
+
+    public PayloadGenerator(Spec spec) {
+        if (spec.bars() < 0 || spec.intervalSeconds() <= 0) {
+            throw new IllegalArgumentException("bars must be >= 0 and intervalSeconds > 0");
+        }
+        this.spec = spec;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        try (JsonGenerator gen = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            switch (spec.vendor()) {
+                case ALPHA_VANTAGE -> writeAlphaVantage(gen);
+                case POLYGON -> writePolygon(gen);
+                case BINANCE -> writeBinance(gen);
+                case YAHOO -> writeYahoo(gen);
+                case FINNHUB -> writeFinnhub(gen);
+            }
+        }
+    }
+
+    private void writeAlphaVantage(JsonGenerator gen) throws IOException {
+        boolean daily = spec.intervalSeconds() % DAY == 0;
+        String interval = daily ? "Daily" : spec.intervalSeconds() / 60 + "min";
+        char[] ts = new char[19];
+
+        // Alpha Vantage lists the newest bar first
+        Rows rows = new Rows(spec, START + (spec.bars() - 1L) * spec.intervalSeconds(), -spec.intervalSeconds());
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("Meta Data");
+        gen.writeStringField("1. Information", (daily ? "Daily" : "Intraday (" + interval + ")")
+                + " open, high, low, close prices and volume");
+        gen.writeStringField("2. Symbol", spec.symbol());
+        gen.writeStringField("3. Last Refreshed", new String(ts, 0, timestamp(rows.first, daily, ts)));
+        if (!daily) {
+            gen.writeStringField("4. Interval", interval);
+        }
+        gen.writeStringField(daily ? "4. Output Size" : "5. Output Size", "Full");
+        gen.writeStringField(daily ? "5. Time Zone" : "6. Time Zone", "US/Eastern");
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("Time Series (" + interval + ")");
+        while (rows.next()) {
+            gen.writeFieldName(new String(ts, 0, timestamp(rows.epoch, daily, ts)));
+            gen.writeStartObject();
+            if (rows.swapped) {
+                gen.writeStringField("5. volume", Long.toString(rows.volume));
+                gen.writeStringField("4. close", decimal(rows.close, 4));
+                gen.writeStringField("3. low", decimal(rows.low, 4));
+                gen.writeStringField("2. high", decimal(rows.high, 4));
+                gen.writeStringField("1. open", rows.malformed ? "None" : decimal(rows.open, 4));
+            } else {
+                gen.writeStringField("1. open", rows.malformed ? "None" : decimal(rows.open, 4));
+                gen.writeStringField("2. high", decimal(rows.high, 4));
+                gen.writeStringField("3. low", decimal(rows.low, 4));
+                gen.writeStringField("4. close", decimal(rows.close, 4));
+                gen.writeStringField("5. volume", Long.toString(rows.volume));
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private void writePolygon(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("ticker", spec.symbol());
+        gen.writeNumberField("queryCount", spec.bars());
+        gen.writeNumberField("resultsCount", spec.bars());
+        gen.writeBooleanField("adjusted", true);
+        gen.writeArrayFieldStart("results");
+        Rows rows = ascending();
+        while (rows.next()) {
+            gen.writeStartObject();
+            gen.writeNumberField("v", (double) rows.volume);
+            gen.writeNumberField("o", rows.open);
+            if (rows.malformed) {
+                gen.writeNullField("c");
+            } else {
+                gen.writeNumberField("c", rows.close);
+            }
+            gen.writeNumberField("h", rows.high);
+            gen.writeNumberField("l", rows.low);
+            gen.writeNumberField("t", rows.epoch * 1000);
+            gen.writeNumberField("n", 1 + rows.volume / 100);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeStringField("status", "OK");
+        gen.writeStringField("request_id", Long.toHexString(spec.seed()));
+        gen.writeNumberField("count", spec.bars());
+        gen.writeEndObject();
+    }
+
+    private void writeBinance(JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        Rows rows = ascending();
+        while (rows.next()) {
+            gen.writeStartArray();
+            gen.writeNumber(rows.epoch * 1000);
+            gen.writeString(decimal(rows.open, 8));
+            gen.writeString(decimal(rows.high, 8));
+            gen.writeString(decimal(rows.low, 8));
+            if (rows.malformed) {
+                gen.writeNull();
+            } else {
+                gen.writeString(decimal(rows.close, 8));
+            }
+            gen.writeString(decimal(rows.volume, 8));
+            gen.writeNumber((rows.epoch + spec.intervalSeconds()) * 1000 - 1);
+            gen.writeString(decimal(rows.volume * rows.close, 8));
+            gen.writeNumber(1 + rows.volume / 100);
+            gen.writeString("0");
+            gen.writeString("0");
+            gen.writeString("0");
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeYahoo(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("chart");
+        gen.writeArrayFieldStart("result");
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("meta");
+        gen.writeStringField("currency", "USD");
+        gen.writeStringField("symbol", spec.symbol());
+        gen.writeStringField("exchangeTimezoneName", "America/New_York");
+        gen.writeStringField("dataGranularity", granularity());
+        gen.writeEndObject();
+        writeColumn(gen, "timestamp", Column.EPOCH);
+        gen.writeObjectFieldStart("indicators");
+        gen.writeArrayFieldStart("quote");
+        gen.writeStartObject();
+        writeColumn(gen, "volume", Column.VOLUME);
+        writeColumn(gen, "open", Column.OPEN);
+        writeColumn(gen, "high", Column.HIGH);
+        writeColumn(gen, "low", Column.LOW);
+        writeColumn(gen, "close", Column.CLOSE);
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeNullField("error");
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private void writeFinnhub(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        writeColumn(gen, "c", Column.CLOSE);
+        writeColumn(gen, "h", Column.HIGH);
+        writeColumn(gen, "l", Column.LOW);
+        writeColumn(gen, "o", Column.OPEN);
+        gen.writeStringField("s", "ok");
+        writeColumn(gen, "t", Column.EPOCH);
+        writeColumn(gen, "v", Column.VOLUME);
+        gen.writeEndObject();
+    }
+
+    private enum Column {
+        EPOCH, OPEN, HIGH, LOW, CLOSE, VOLUME
+    }
+
+    /**
+     * Replays the walk for a single column; malformed bars get a null close.
+     */
+    private void writeColumn(JsonGenerator gen, String name, Column column) throws IOException {
+        gen.writeArrayFieldStart(name);
+        Rows rows = ascending();
+        while (rows.next()) {
+            switch (column) {
+                case EPOCH -> gen.writeNumber(rows.epoch);
+                case OPEN -> gen.writeNumber(rows.open);
+                case HIGH -> gen.writeNumber(rows.high);
+                case LOW -> gen.writeNumber(rows.low);
+                case CLOSE -> {
+                    if (rows.malformed) {
+                        gen.writeNull();
+                    } else {
+                        gen.writeNumber(rows.close);
+                    }
+                }
+                case VOLUME -> gen.writeNumber(rows.volume);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private Rows ascending() {
+        return new Rows(spec, START, spec.intervalSeconds());
+    }
+
+    private String granularity() {
+        long s = spec.intervalSeconds();
+        if (s % DAY == 0) {
+            return s / DAY + "d";
+        }
+        return s % 3_600 == 0 ? s / 3_600 + "h" : s / 60 + "m";
+    }
+
+    private static int timestamp(long epoch, boolean dateOnly, char[] dst) {
+        int len = Timestamps.formatDate(epoch, dst, 0);
+        if (dateOnly) {
+            return len;
+        }
+        dst[len++] = ' ';
+        len += Timestamps.formatTime(epoch, dst, len);
+        dst[len++] = ':';
+        dst[len++] = '0';
+        dst[len++] = '0';
+        return len;
+    }
+
+    /**
+     * Fixed-point text with {@code scale} fraction digits, as providers send prices.
+     */
+    static String decimal(double value, int scale) {
+        long factor = 1;
+        for (int i = 0; i < scale; i++) {
+            factor *= 10;
+        }
+        long scaled = Math.round(value * factor);
+        StringBuilder sb = new StringBuilder(24);
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        sb.append(scaled / factor).append('.');
+        String fraction = Long.toString(scaled % factor);
+        for (int i = fraction.length(); i < scale; i++) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /**
+     * Bars in emission order. Two generators seeded from the spec drive prices
+     * and defects separately, so every replay produces the same sequence.
+     */
+    private static final class Rows {
+
+        private final Spec spec;
+        private final long step;
+        private final Random walk;
+        private final Random chaos;
+        private final long first;
+
+        private int generated;
+        private double price = 100;
+        private boolean held;
+
+        long epoch;
+        double open;
+        double high;
+        double low;
+        double close;
+        long volume;
+        boolean malformed;
+        boolean swapped;
+
+        // The bar held back while its successor is emitted first
+        private long heldEpoch;
+        private double heldOpen;
+        private double heldHigh;
+        private double heldLow;
+        private double heldClose;
+        private long heldVolume;
+        private boolean heldMalformed;
+
+        Rows(Spec spec, long first, long step) {
+            this.spec = spec;
+            this.first = first;
+            this.step = step;
+            this.walk = new Random(spec.seed());
+            this.chaos = new Random(~spec.seed());
+        }
+
+        boolean next() {
+            if (held) {
+                held = false;
+                epoch = heldEpoch;
+                open = heldOpen;
+                high = heldHigh;
+                low = heldLow;
+                close = heldClose;
+                volume = heldVolume;
+                malformed = heldMalformed;
+                swapped = true;
+                return true;
+            }
+            if (generated == spec.bars()) {
+                return false;
+            }
+            generate();
+            swapped = false;
+            if (generated < spec.bars() && chaos.nextDouble() < spec.disorderRate()) {
+                heldEpoch = epoch;
+                heldOpen = open;
+                heldHigh = high;
+                heldLow = low;
+                heldClose = close;
+                heldVolume = volume;
+                heldMalformed = malformed;
+                held = true;
+                generate();
+                swapped = true;
+            }
+            return true;
+        }
+
+        private void generate() {
+            epoch = first + generated * step;
+            open = price;
+            price = Math.max(0.01, price * (1 + walk.nextGaussian() * 0.002));
+            close = price;
+            high = Math.max(open, close) * (1 + walk.nextDouble() * 0.001);
+            low = Math.min(open, close) * (1 - walk.nextDouble() * 0.001);
+            volume = 100 + walk.nextInt(100_000);
+            malformed = chaos.nextDouble() < spec.malformedRate();
+            generated++;
+        }
+    }
+}
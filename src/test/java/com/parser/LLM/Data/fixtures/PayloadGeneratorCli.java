@@ -0,0 +1,74 @@
+package com.parser.LLM.Data.fixtures;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line front end for {@link PayloadGenerator}, e.g. for soak testing a running service:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.parser.LLM.Data.fixtures.PayloadGeneratorCli \
+ *     -Dexec.args="--vendor alpha_vantage --bars 200000 --malformed 0.01 --out /tmp/av.json"
+ * </pre>
+ *
+ * Without {@code --out} the payload is written to standard output.
+ */
+public final class PayloadGeneratorCli {
+
+    private PayloadGeneratorCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        PayloadGenerator.Vendor vendor = PayloadGenerator.Vendor.ALPHA_VANTAGE;
+        String symbol = "IBM";
+        int bars = 1_000;
+        long interval = 300;
+        long seed = 42;
+        double malformed = 0;
+        double disorder = 0;
+        Path out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + flag);
+            }
+            String value = args[++i];
+            switch (flag) {
+                case "--vendor" -> vendor = PayloadGenerator.Vendor.valueOf(value.toUpperCase(Locale.US));
+                case "--symbol" -> symbol = value;
+                case "--bars" -> bars = Integer.parseInt(value);
+                case "--interval" -> interval = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--malformed" -> malformed = Double.parseDouble(value);
+                case "--disorder" -> disorder = Double.parseDouble(value);
+                case "--out" -> out = Path.of(value);
+                default -> usage("Unknown option " + flag);
+            }
+        }
+
+        PayloadGenerator generator = new PayloadGenerator(
+                new PayloadGenerator.Spec(vendor, symbol, bars, interval, seed, malformed, disorder));
+        if (out == null) {
+            OutputStream stdout = new BufferedOutputStream(System.out, 64 * 1024);
+            generator.write(stdout);
+            stdout.flush();
+        } else {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(out), 64 * 1024)) {
+                generator.write(file);
+            }
+        }
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Options: --vendor alpha_vantage|polygon|binance|yahoo|finnhub --symbol S --bars N"
+                + " --interval SECONDS --seed N --malformed RATE --disorder RATE --out FILE");
+        System.exit(2);
+    }
+}
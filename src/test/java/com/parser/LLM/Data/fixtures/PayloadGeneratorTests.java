@@ -0,0 +1,89 @@
+package com.parser.LLM.Data.fixtures;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.SortOrder;
+import com.parser.LLM.Data.provider.AlphaVantageAdapter;
+import com.parser.LLM.Data.provider.BinanceAdapter;
+import com.parser.LLM.Data.provider.FinnhubAdapter;
+import com.parser.LLM.Data.provider.PolygonAdapter;
+import com.parser.LLM.Data.provider.ProviderHints;
+import com.parser.LLM.Data.provider.ProviderRegistry;
+import com.parser.LLM.Data.provider.YahooChartAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadGeneratorTests {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ProviderRegistry registry = new ProviderRegistry(List.of(
+            new AlphaVantageAdapter(), new PolygonAdapter(), new BinanceAdapter(),
+            new YahooChartAdapter(), new FinnhubAdapter()));
+
+    @ParameterizedTest
+    @EnumSource(PayloadGenerator.Vendor.class)
+    void producesPayloadsTheProvidersDecode(PayloadGenerator.Vendor vendor) throws IOException {
+        BarSeries series = decode(PayloadGenerator.Spec.of(vendor, 500));
+
+        assertThat(series.symbol()).isEqualTo("IBM");
+        assertThat(series.interval()).isEqualTo("5m");
+        assertThat(series.size()).isEqualTo(500);
+    }
+
+    @Test
+    void isDeterministicPerSeed() throws IOException {
+        PayloadGenerator.Spec spec = new PayloadGenerator.Spec(
+                PayloadGenerator.Vendor.YAHOO, "MSFT", 200, 60, 7, 0.1, 0.1);
+        assertThat(generate(spec)).isEqualTo(generate(spec));
+        assertThat(generate(spec)).isNotEqualTo(generate(
+                new PayloadGenerator.Spec(PayloadGenerator.Vendor.YAHOO, "MSFT", 200, 60, 8, 0.1, 0.1)));
+    }
+
+    @Test
+    void disorderOnlyChangesTheOrderOfBars() throws IOException {
+        PayloadGenerator.Spec clean = new PayloadGenerator.Spec(
+                PayloadGenerator.Vendor.ALPHA_VANTAGE, "IBM", 1_000, 86_400, 3, 0, 0);
+        PayloadGenerator.Spec shuffled = new PayloadGenerator.Spec(
+                PayloadGenerator.Vendor.ALPHA_VANTAGE, "IBM", 1_000, 86_400, 3, 0, 0.3);
+
+        BarSeries expected = decode(clean);
+        BarSeries actual = decode(shuffled);
+        expected.order(SortOrder.ASC);
+        actual.order(SortOrder.ASC);
+
+        assertThat(actual.interval()).isEqualTo("1d");
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.epoch(i)).isEqualTo(expected.epoch(i));
+            assertThat(actual.close(i)).isEqualTo(expected.close(i));
+        }
+    }
+
+    @Test
+    void malformedBarsAreSkippedByTheDecoder() throws IOException {
+        BarSeries series = decode(new PayloadGenerator.Spec(
+                PayloadGenerator.Vendor.ALPHA_VANTAGE, "IBM", 1_000, 300, 5, 0.2, 0));
+
+        assertThat(series.size()).isBetween(700, 900);
+    }
+
+    private BarSeries decode(PayloadGenerator.Spec spec) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(generate(spec))) {
+            return registry.decode(parser, null, new ProviderHints(spec.symbol(), null, null));
+        }
+    }
+
+    private static byte[] generate(PayloadGenerator.Spec spec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PayloadGenerator(spec).write(out);
+        return out.toByteArray();
+    }
+}
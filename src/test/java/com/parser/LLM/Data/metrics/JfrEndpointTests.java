@@ -0,0 +1,79 @@
+package com.parser.LLM.Data.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=jfr")
+@AutoConfigureMockMvc
+class JfrEndpointTests {
+
+    private static final String BINANCE = "[[1499040000000, \"1.0\", \"2.0\", \"0.5\", \"1.5\", \"10\"],"
+            + " [1499040060000, \"1.5\", \"2.5\", \"1.0\", \"2.0\", \"20\"]]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void recordsNormalizeEventsAndDumpsThem() throws Exception {
+        mockMvc.perform(get("/actuator/jfr/dump")).andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/actuator/jfr/start").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.maxAge").value("PT30M"))
+                .andExpect(jsonPath("$.maxSize").value(250 * 1024 * 1024));
+        try {
+            mockMvc.perform(post("/api/llm-data/normalize?symbol=JFRTEST")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BINANCE))
+                    .andExpect(status().isOk());
+
+            byte[] dump = mockMvc.perform(get("/actuator/jfr/dump"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            Path file = Files.createTempFile("normalize-", ".jfr");
+            try {
+                Files.write(file, dump);
+                List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                        .filter(e -> e.getEventType().getName().equals("com.parser.llmdata.Normalize"))
+                        .filter(e -> "JFRTEST".equals(e.getString("symbol")))
+                        .toList();
+                assertThat(events).hasSize(1);
+                assertThat(events.get(0).getInt("bars")).isEqualTo(2);
+                assertThat(events.get(0).getString("provider")).isEqualTo("binance");
+                assertThat(events.get(0).getLong("requestBytes")).isEqualTo(BINANCE.length());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+
+            mockMvc.perform(post("/actuator/jfr/stop").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(post("/actuator/jfr/start").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"maxAge\": \"PT5M\", \"maxSize\": \"16MB\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.maxAge").value("PT5M"))
+                    .andExpect(jsonPath("$.maxSize").value(16 * 1024 * 1024));
+        } finally {
+            mockMvc.perform(post("/actuator/jfr/stop").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("NONE"));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.parser.LLM.Data.normalize;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecimalFormatterTests {
+
+    @Test
+    void writesPlainDecimalsWithoutTrailingZeros() {
+        assertThat(format(160.01, Precision.SHORTEST)).isEqualTo("160.01");
+        assertThat(format(160.0, Precision.SHORTEST)).isEqualTo("160");
+        assertThat(format(0.00001234, Precision.SHORTEST)).isEqualTo("0.00001234");
+        assertThat(format(12_345_678.5, Precision.SHORTEST)).isEqualTo("12345678.5");
+        assertThat(format(-0.0, Precision.SHORTEST)).isEqualTo("0");
+        assertThat(format(1e22, Precision.SHORTEST)).isEqualTo("10000000000000000000000");
+        assertThat(format(2.5e-12, Precision.SHORTEST)).isEqualTo("0.0000000000025");
+    }
+
+    @Test
+    void roundsToPrecision() {
+        assertThat(format(160.0100, Precision.decimals(2))).isEqualTo("160.01");
+        assertThat(format(159.8999, Precision.decimals(2))).isEqualTo("159.9");
+        assertThat(format(159.996, Precision.decimals(2))).isEqualTo("160");
+        assertThat(format(0.0504, Precision.decimals(2))).isEqualTo("0.05");
+        assertThat(format(0.004, Precision.decimals(2))).isEqualTo("0");
+        assertThat(format(-0.004, Precision.decimals(2))).isEqualTo("0");
+        assertThat(format(-1.25, Precision.decimals(1))).isEqualTo("-1.2");
+        assertThat(format(1.25, Precision.decimals(1))).isEqualTo("1.3");
+        assertThat(format(2.5, Precision.decimals(0))).isEqualTo("3");
+        assertThat(format(1e17 + 0.5, Precision.decimals(4))).isEqualTo("100000000000000000");
+    }
+
+    @Test
+    void roundsToSignificantDigits() {
+        assertThat(format(160.0149, Precision.significant(5))).isEqualTo("160.01");
+        assertThat(format(0.000012345, Precision.significant(2))).isEqualTo("0.000012");
+        assertThat(format(123_456.0, Precision.significant(3))).isEqualTo("123000");
+        assertThat(format(-98_765.4, Precision.significant(2))).isEqualTo("-99000");
+        assertThat(format(999.96, Precision.significant(4))).isEqualTo("1000");
+        assertThat(format(0.0, Precision.significant(3))).isEqualTo("0");
+        assertThat(format(1.5e300, Precision.significant(2))).isEqualTo("15" + "0".repeat(299));
+    }
+
+    @Test
+    void roundedDoubleMatchesTheWrittenDecimal() {
+        Random random = new Random(7);
+        for (int n = 0; n < 20_000; n++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16) - 6);
+            Precision precision = random.nextBoolean()
+                    ? Precision.decimals(random.nextInt(Precision.MAX_DECIMALS + 1))
+                    : Precision.significant(1 + random.nextInt(Precision.MAX_SIGNIFICANT));
+            String text = format(value, precision);
+            assertThat(DecimalFormatter.round(value, precision)).isEqualTo(Double.parseDouble(text) + 0.0);
+        }
+    }
+
+    @Test
+    void shortestFormIsNoLongerThanTheJdkForm() {
+        Random random = new Random(3);
+        for (int n = 0; n < 50_000; n++) {
+            // Prices parsed from short decimals, as providers send them
+            double value = BigDecimal.valueOf(random.nextLong() % 100_000_000_000L, random.nextInt(13)).doubleValue();
+            String jdk = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+            String text = format(value, Precision.SHORTEST);
+            assertThat(Double.parseDouble(text)).isEqualTo(value);
+            assertThat(text.length()).isLessThanOrEqualTo(jdk.equals("0") ? 1 : jdk.length());
+        }
+    }
+
+    @Test
+    void shortestFormReadsBackAsTheSameDouble() {
+        Random random = new Random(5);
+        for (int n = 0; n < 50_000; n++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 15);
+            String text = format(value, Precision.SHORTEST);
+            assertThat(text).doesNotContain("E");
+            assertThat(Double.parseDouble(text)).isEqualTo(value == 0 ? 0.0 : value);
+        }
+    }
+
+    @Test
+    void precisionMatchesBigDecimalRoundingOfTheBinaryValue() {
+        Random random = new Random(9);
+        for (int n = 0; n < 50_000; n++) {
+            double value = random.nextDouble() * Math.pow(10, random.nextInt(8));
+            int precision = random.nextInt(Precision.MAX_DECIMALS + 1);
+            if (value * Math.pow(10, precision) >= 1e15) {
+                // Past double precision the shortest decimal form is rounded instead
+                continue;
+            }
+            String expected = new BigDecimal(value).setScale(precision, RoundingMode.HALF_UP)
+                    .stripTrailingZeros().toPlainString();
+            String actual = format(value, Precision.decimals(precision));
+            // Scaling by a power of ten can itself round; allow a one-unit difference in the last place
+            assertThat(new BigDecimal(actual).subtract(new BigDecimal(expected)).abs())
+                    .isLessThanOrEqualTo(BigDecimal.ONE.movePointLeft(precision));
+        }
+    }
+
+    @Test
+    void writesLongs() {
+        char[] dst = new char[24];
+        assertThat(new String(dst, 0, DecimalFormatter.formatLong(1200, dst, 0))).isEqualTo("1200");
+        assertThat(new String(dst, 0, DecimalFormatter.formatLong(Long.MIN_VALUE, dst, 0)))
+                .isEqualTo(Long.toString(Long.MIN_VALUE));
+    }
+
+    private static String format(double value, Precision precision) {
+        char[] dst = new char[DecimalFormatter.MAX_LENGTH];
+        return new String(dst, 0, DecimalFormatter.format(value, precision, dst, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.parser.LLM.Data.normalize;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecimalParserTests {
+
+    private static final String ALPHABET = "0123456789012345678.-+eE dfNIx";
+
+    @Test
+    void fuzzAgainstJdkOnRandomStrings() {
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder();
+        for (int n = 0; n < 200_000; n++) {
+            sb.setLength(0);
+            int len = random.nextInt(14);
+            for (int k = 0; k < len; k++) {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertMatchesJdk(sb.toString());
+        }
+    }
+
+    @Test
+    void fuzzAgainstJdkOnPriceLikeValues() {
+        Random random = new Random(11);
+        for (int n = 0; n < 100_000; n++) {
+            double price = random.nextDouble() * Math.pow(10, random.nextInt(8));
+            assertMatchesJdk(String.format(Locale.US, "%.4f", price));
+            assertMatchesJdk(String.format(Locale.US, "%." + random.nextInt(12) + "f", price));
+            assertMatchesJdk(Double.toString(price));
+            assertMatchesJdk(Double.toString(-random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+        }
+    }
+
+    @Test
+    void fuzzScaledAndLongAgainstBigDecimal() {
+        Random random = new Random(13);
+        for (int n = 0; n < 200_000; n++) {
+            long units = random.nextLong() % 1_000_000_000_000L;
+            String fixed = BigDecimal.valueOf(units, 4).toPlainString();
+            assertThat(DecimalParser.parseScaled(fixed, 4)).as(fixed).isEqualTo(units);
+            assertThat(DecimalParser.parseScaled(fixed + "00", 4)).isEqualTo(units);
+
+            long volume = random.nextLong();
+            String text = Long.toString(volume);
+            long expected = volume == Long.MIN_VALUE ? DecimalParser.INVALID : volume;
+            assertThat(DecimalParser.parseLong(text)).isEqualTo(expected);
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertThat(DecimalParser.parseLong(bytes, 0, bytes.length)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void reportsMalformedValuesThroughReturnCodes() {
+        for (String bad : new String[] {"", "None", "-", ".", "1.2.3", "1e", "1,5", " 1", "NaN", "0x10"}) {
+            assertThat(DecimalParser.parseDouble(bad)).as(bad).isNaN();
+            assertThat(DecimalParser.parseLong(bad)).as(bad).isEqualTo(DecimalParser.INVALID);
+            assertThat(DecimalParser.parseScaled(bad, 4)).as(bad).isEqualTo(DecimalParser.INVALID);
+        }
+        assertThat(DecimalParser.parseScaled("1.00001", 4)).isEqualTo(DecimalParser.INVALID);
+        assertThat(DecimalParser.parseLong("9223372036854775808")).isEqualTo(DecimalParser.INVALID);
+    }
+
+    private static void assertMatchesJdk(String s) {
+        Double expected;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException ex) {
+            expected = null;
+        }
+
+        double actual = DecimalParser.parseDouble(s);
+        byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+        double actualBytes = DecimalParser.parseDouble(bytes, 0, bytes.length);
+        assertThat(Double.doubleToRawLongBits(actualBytes)).as(s).isEqualTo(Double.doubleToRawLongBits(actual));
+
+        if (Double.isNaN(actual)) {
+            // Only reject what the JDK rejects, or the forms it accepts beyond plain decimals
+            boolean jdkOnlySyntax = s.isBlank() || !s.equals(s.trim()) || s.matches(".*[dfNIx].*");
+            assertThat(expected == null || jdkOnlySyntax).as(s).isTrue();
+        } else {
+            assertThat(expected).as(s).isNotNull();
+            assertThat(Double.doubleToRawLongBits(actual)).as(s).isEqualTo(Double.doubleToRawLongBits(expected));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeltaBarsTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void infersTheCoarsestDecimalTick() {
+        assertThat(TickSize.infer(series(160.01, 160.2, 159.9, 160.1))).isEqualTo(new TickSize(1, 2));
+        assertThat(TickSize.infer(series(100, 101, 99, 100))).isEqualTo(new TickSize(1, 0));
+        assertThat(TickSize.infer(series(0.00001234, 0.0000125, 0.0000122, 0.0000124)).decimals()).isEqualTo(8);
+        assertThatThrownBy(() -> TickSize.infer(series(Math.PI, 4, 3, 3.5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesExplicitTicks() {
+        assertThat(TickSize.parse("0.05")).isEqualTo(new TickSize(5, 2));
+        assertThat(TickSize.parse("0.0100")).isEqualTo(new TickSize(1, 2));
+        assertThat(TickSize.parse("0.05")).hasToString("0.05");
+        assertThatThrownBy(() -> TickSize.parse("0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TickSize.parse("abc")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writesPricesAsTickDeltasFromThePreviousClose() throws Exception {
+        BarSeries series = series(160.01, 160.2, 159.9, 160.1);
+        series.add(60, 160.1, 160.15, 160.0, 160.05, 900);
+
+        JsonNode delta = mapper.valueToTree(DeltaBars.of(series, null));
+        assertThat(delta.get("tick").doubleValue()).isEqualTo(0.01);
+        assertThat(delta.get("base").longValue()).isEqualTo(16001);
+        assertThat(delta.get("d").get(0).toString()).isEqualTo("[\"00:00\",0,19,-11,9,1200]");
+        assertThat(delta.get("d").get(1).toString()).isEqualTo("[\"00:01\",0,5,-10,-5,900]");
+    }
+
+    @Test
+    void rejectsPricesOffTheTick() {
+        BarSeries series = series(160.01, 160.2, 159.9, 160.1);
+        assertThatThrownBy(() -> DeltaBars.of(series, TickSize.parse("0.05")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not a multiple of tick 0.05");
+    }
+
+    @Test
+    void roundTripsRandomSeriesExactly() throws Exception {
+        Random random = new Random(3);
+        for (int decimals : new int[]{0, 2, 4, 8}) {
+            BarSeries series = new BarSeries();
+            series.describe("X", "1m", "UTC", false);
+            long ticks = 1_000_000;
+            for (int i = 0; i < 2_000; i++) {
+                ticks += random.nextInt(21) - 10;
+                long close = ticks + random.nextInt(7) - 3;
+                long high = Math.max(ticks, close) + random.nextInt(5);
+                long low = Math.min(ticks, close) - random.nextInt(5);
+                // Prices as a provider would send them, e.g. "10000.01"
+                series.add(i * 60L, price(ticks, decimals), price(high, decimals), price(low, decimals),
+                        price(close, decimals), random.nextInt(10_000));
+            }
+
+            JsonNode plain = mapper.readTree(mapper.writeValueAsString(series));
+            JsonNode delta = mapper.readTree(mapper.writeValueAsString(DeltaBars.of(series, null)));
+            // Whole prices are written as "160", so compare numbers by value rather than by node type
+            assertThat(plain.equals(DeltaBarsTests::compareValues, DeltaDecoder.toAbsolute(delta))).isTrue();
+        }
+    }
+
+    private static int compareValues(JsonNode a, JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    }
+
+    private static double price(long ticks, int decimals) {
+        return BigDecimal.valueOf(ticks).movePointLeft(decimals).doubleValue();
+    }
+
+    private static BarSeries series(double open, double high, double low, double close) {
+        BarSeries series = new BarSeries();
+        series.describe("IBM", "1m", "UTC", false);
+        series.add(0, open, high, low, close, 1200);
+        return series;
+    }
+}
@@ -0,0 +1,95 @@
+package com.parser.LLM.Data.normalize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownsamplerTests {
+
+    @Test
+    void keepsEndpointsAndExtremesWithinBudget() {
+        BarSeries series = randomWalk(10_000, 7);
+        int highest = 0;
+        int lowest = 0;
+        for (int i = 1; i < series.size(); i++) {
+            highest = series.high(i) > series.high(highest) ? i : highest;
+            lowest = series.low(i) < series.low(lowest) ? i : lowest;
+        }
+        long first = series.epoch(0);
+        long last = series.epoch(series.size() - 1);
+        double maxHigh = series.high(highest);
+        double minLow = series.low(lowest);
+
+        BarSeries small = Downsampler.lttb(series, 50);
+
+        assertThat(small.size()).isLessThanOrEqualTo(50).isGreaterThanOrEqualTo(48);
+        assertThat(small.epoch(0)).isEqualTo(first);
+        assertThat(small.epoch(small.size() - 1)).isEqualTo(last);
+        double keptHigh = Double.NEGATIVE_INFINITY;
+        double keptLow = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < small.size(); i++) {
+            if (i > 0) {
+                assertThat(small.epoch(i)).isGreaterThan(small.epoch(i - 1));
+            }
+            keptHigh = Math.max(keptHigh, small.high(i));
+            keptLow = Math.min(keptLow, small.low(i));
+        }
+        assertThat(keptHigh).isEqualTo(maxHigh);
+        assertThat(keptLow).isEqualTo(minLow);
+    }
+
+    @Test
+    void leavesSeriesThatFitUntouched() {
+        BarSeries series = randomWalk(10, 1);
+        assertThat(Downsampler.lttb(series, 10)).isSameAs(series);
+        assertThatThrownBy(() -> Downsampler.lttb(series, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void estimatesTokensFromTheSerializedLength() throws Exception {
+        BarSeries series = randomWalk(500, 3);
+        byte[] json = new ObjectMapper().writeValueAsBytes(series);
+
+        assertThat(TokenEstimator.estimate(series, Precision.SHORTEST, null))
+                .isEqualTo(TokenEstimator.fromLength(null, json.length));
+        int rows = TokenEstimator.rowsWithin(series, 1_000, Precision.SHORTEST, null);
+        assertThat(rows).isBetween(1, 499);
+        assertThat(TokenEstimator.estimate(Downsampler.lttb(series, rows), Precision.SHORTEST, null))
+                .isLessThanOrEqualTo(1_050);
+
+        for (TextFormat format : TextFormat.values()) {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            try (TextBarWriter writer = new TextBarWriter(text, format, Precision.SHORTEST)) {
+                series.replay(writer);
+                writer.finish();
+            }
+            assertThat(TokenEstimator.estimate(series, Precision.SHORTEST, format))
+                    .isEqualTo(TokenEstimator.fromLength(format, text.size()))
+                    .isLessThan(TokenEstimator.fromLength(null, json.length));
+            int textRows = TokenEstimator.rowsWithin(series, 1_000, Precision.SHORTEST, format);
+            assertThat(textRows).isGreaterThan(rows);
+            assertThat(TokenEstimator.estimate(Downsampler.lttb(series, textRows), Precision.SHORTEST, format))
+                    .isLessThanOrEqualTo(1_050);
+        }
+    }
+
+    private static BarSeries randomWalk(int n, long seed) {
+        Random random = new Random(seed);
+        BarSeries series = new BarSeries();
+        series.describe("TEST", "1m", "UTC", false);
+        double price = 100;
+        for (int i = 0; i < n; i++) {
+            double open = price;
+            price = Math.round((price + random.nextGaussian()) * 100) / 100.0;
+            double high = Math.max(open, price) + random.nextInt(50) / 100.0;
+            double low = Math.min(open, price) - random.nextInt(50) / 100.0;
+            series.add(1_700_000_000L + i * 60L, open, high, low, price, random.nextInt(10_000));
+        }
+        return series;
+    }
+}
@@ -0,0 +1,52 @@
+package com.parser.LLM.Data.normalize;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalsTests {
+
+    @Test
+    void spellsEqualLengthsTheSameWay() {
+        for (String raw : new String[]{"60min", "60m", "1h", "3600s", " 1H "}) {
+            assertThat(Intervals.normalize(raw)).as(raw).isEqualTo("1h");
+        }
+        assertThat(Intervals.normalize("1440min")).isEqualTo("1d");
+        assertThat(Intervals.normalize("7d")).isEqualTo("1w");
+        assertThat(Intervals.normalize("1wk")).isEqualTo("1w");
+        assertThat(Intervals.normalize("Daily")).isEqualTo("1d");
+    }
+
+    @Test
+    void readsFinnhubResolutions() {
+        assertThat(Intervals.normalize("5")).isEqualTo("5m");
+        assertThat(Intervals.normalize("60")).isEqualTo("1h");
+        assertThat(Intervals.normalize("D")).isEqualTo("1d");
+        assertThat(Intervals.normalize("W")).isEqualTo("1w");
+        assertThat(Intervals.normalize("M")).isEqualTo("1mo");
+        assertThat(Intervals.normalize("0")).isEqualTo("0");
+    }
+
+    @Test
+    void keepsMonthsApartFromFixedLengths() {
+        assertThat(Intervals.normalize("1M")).isEqualTo("1mo");
+        assertThat(Intervals.normalize("01mo")).isEqualTo("1mo");
+        assertThat(Intervals.normalize("4w")).isEqualTo("4w");
+        assertThat(Intervals.normalize("30d")).isEqualTo("30d");
+    }
+
+    @Test
+    void returnsUnknownLabelsAsGiven() {
+        assertThat(Intervals.normalize("fortnightly")).isEqualTo("fortnightly");
+        assertThat(Intervals.normalize("0m")).isEqualTo("0m");
+    }
+
+    @Test
+    void recognisesDailyLabelsInEitherCase() {
+        assertThat(Intervals.isDaily("1d")).isTrue();
+        assertThat(Intervals.isDaily("1D")).isTrue();
+        assertThat(Intervals.isDaily("1W")).isTrue();
+        assertThat(Intervals.isDaily("1MO")).isTrue();
+        assertThat(Intervals.isDaily("5m")).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package com.parser.LLM.Data.normalize;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResamplerTests {
+
+    @Test
+    void aggregatesIntradayBarsOnTheSessionGrid() {
+        BarSeries minutes = new BarSeries();
+        minutes.describe("IBM", "1m", "US/Eastern", false);
+        long open = Timestamps.parseEpochSeconds("2024-01-05 09:30:00");
+        // Newest first, as providers usually send them: 09:30 .. 10:14 over 45 bars
+        for (int i = 44; i >= 0; i--) {
+            minutes.add(open + i * 60L, 100 + i, 101 + i, 99 + i, 100.5 + i, 10);
+        }
+
+        BarSeries quarters = Resampler.resample(minutes, "15min");
+
+        assertThat(quarters.interval()).isEqualTo("15m");
+        assertThat(quarters.dateLabels()).isFalse();
+        assertThat(quarters.size()).isEqualTo(3);
+        assertThat(quarters.epoch(0)).isEqualTo(open);
+        assertThat(quarters.epoch(1)).isEqualTo(open + 15 * 60);
+        assertThat(quarters.open(0)).isEqualTo(100);
+        assertThat(quarters.high(0)).isEqualTo(115);
+        assertThat(quarters.low(0)).isEqualTo(99);
+        assertThat(quarters.close(0)).isEqualTo(114.5);
+        assertThat(quarters.volume(0)).isEqualTo(150);
+    }
+
+    @Test
+    void startsEachDayFromItsFirstBar() {
+        BarSeries minutes = new BarSeries();
+        minutes.describe("IBM", "5m", "US/Eastern", false);
+        minutes.add(Timestamps.parseEpochSeconds("2024-01-04 15:55:00"), 1, 1, 1, 1, 1);
+        minutes.add(Timestamps.parseEpochSeconds("2024-01-05 09:30:00"), 2, 2, 2, 2, 1);
+        minutes.add(Timestamps.parseEpochSeconds("2024-01-05 10:25:00"), 3, 3, 3, 3, 1);
+        minutes.add(Timestamps.parseEpochSeconds("2024-01-05 10:30:00"), 4, 4, 4, 4, 1);
+
+        BarSeries hours = Resampler.resample(minutes, "1h");
+
+        assertThat(hours.size()).isEqualTo(3);
+        assertThat(hours.epoch(0)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-04 15:55:00"));
+        assertThat(hours.epoch(1)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-05 09:30:00"));
+        assertThat(hours.close(1)).isEqualTo(3);
+        assertThat(hours.epoch(2)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-05 10:30:00"));
+    }
+
+    @Test
+    void usesCalendarWeeksAndMonths() {
+        BarSeries days = new BarSeries();
+        days.describe("IBM", "1d", "US/Eastern", true);
+        // Wednesday 2024-01-31 through Tuesday 2024-02-06
+        long first = Timestamps.parseEpochSeconds("2024-01-31");
+        for (int i = 0; i < 7; i++) {
+            days.add(first + i * 86_400L, i, i, i, i, 1);
+        }
+
+        BarSeries weeks = Resampler.resample(days, "weekly");
+        assertThat(weeks.interval()).isEqualTo("1w");
+        assertThat(weeks.size()).isEqualTo(2);
+        assertThat(weeks.epoch(0)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-29"));
+        assertThat(weeks.epoch(1)).isEqualTo(Timestamps.parseEpochSeconds("2024-02-05"));
+        assertThat(weeks.volume(0)).isEqualTo(5);
+
+        BarSeries months = Resampler.resample(days, "1mo");
+        assertThat(months.size()).isEqualTo(2);
+        assertThat(months.epoch(0)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-01"));
+        assertThat(months.epoch(1)).isEqualTo(Timestamps.parseEpochSeconds("2024-02-01"));
+        assertThat(months.open(1)).isEqualTo(1);
+        assertThat(months.close(1)).isEqualTo(6);
+    }
+
+    @Test
+    void rejectsFinerOrUnknownTargets() {
+        BarSeries days = new BarSeries();
+        days.describe("IBM", "1d", "US/Eastern", true);
+
+        assertThatThrownBy(() -> Resampler.resample(days, "15m"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Resampler.resample(days, "fortnightly"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.parser.LLM.Data.normalize;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimestampsTests {
+
+    private static final DateTimeFormatter INPUT_TS_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.US);
+
+    @Test
+    void matchesJavaTimeForRandomTimestamps() {
+        Random random = new Random(42);
+        char[] buf = new char[Timestamps.DATE_LENGTH];
+        for (int n = 0; n < 100_000; n++) {
+            long seconds = random.nextLong(-2_000_000_000L, 7_000_000_000L);
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+            String ts = dateTime.format(INPUT_TS_FORMAT);
+
+            assertThat(Timestamps.parseEpochSeconds(ts)).as(ts).isEqualTo(seconds);
+            assertThat(Timestamps.parseEpochSeconds(ts.substring(0, 16))).isEqualTo(seconds - dateTime.getSecond());
+
+            int len = Timestamps.formatDate(seconds, buf, 0);
+            assertThat(new String(buf, 0, len)).isEqualTo(ts.substring(0, 10));
+            len = Timestamps.formatTime(seconds, buf, 0);
+            assertThat(new String(buf, 0, len)).isEqualTo(ts.substring(11, 16));
+
+            long month = Timestamps.monthsSinceEpoch(seconds);
+            assertThat(month).isEqualTo((dateTime.getYear() - 1970L) * 12 + dateTime.getMonthValue() - 1);
+            assertThat(Timestamps.startOfMonth(month))
+                    .isEqualTo(dateTime.toLocalDate().withDayOfMonth(1).toEpochDay() * 86_400L);
+        }
+    }
+
+    @Test
+    void rejectsMalformedTimestamps() {
+        assertThat(Timestamps.parseEpochSeconds("2024-02-30")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("2023-02-29 10:00:00")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("2024-01-05 24:00:00")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("2024-01-05 9:30:00")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("2024/01/05")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("")).isEqualTo(Timestamps.INVALID);
+        assertThat(Timestamps.parseEpochSeconds("2024-02-29")).isEqualTo(19_782L * 86_400L);
+    }
+}
@@ -0,0 +1,208 @@
+package com.parser.LLM.Data.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.Timestamps;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderRegistryTests {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ProviderRegistry registry = new ProviderRegistry(List.of(
+            new AlphaVantageAdapter(), new PolygonAdapter(), new BinanceAdapter(),
+            new YahooChartAdapter(), new FinnhubAdapter()));
+
+    @Test
+    void decodesAlphaVantageDailyWithoutIntervalField() throws IOException {
+        BarSeries series = decode("""
+                {"Meta Data": {"1. Information": "Daily Prices", "2. Symbol": "IBM",
+                               "3. Last Refreshed": "2024-01-05", "4. Output Size": "Compact", "5. Time Zone": "US/Eastern"},
+                 "Time Series (Daily)": {
+                   "2024-01-05": {"1. open": "160.0", "2. high": "161.0", "3. low": "159.0", "4. close": "160.5", "5. volume": "100"},
+                   "2024-01-04": {"1. open": "None", "2. high": "161.0", "3. low": "159.0", "4. close": "160.5", "5. volume": "100"}
+                 }}
+                """, ProviderHints.NONE);
+
+        assertThat(series.symbol()).isEqualTo("IBM");
+        assertThat(series.interval()).isEqualTo("1d");
+        assertThat(series.timeZone()).isEqualTo("US/Eastern");
+        assertThat(series.dateLabels()).isTrue();
+        assertThat(series.size()).isEqualTo(1);
+        assertThat(series.close(0)).isEqualTo(160.5);
+        assertThat(series.provider()).isEqualTo("alphavantage");
+        assertThat(series.skipped()).isEqualTo(1);
+    }
+
+    @Test
+    void decodesPolygonAggregates() throws IOException {
+        BarSeries series = decode("""
+                {"ticker": "AAPL", "queryCount": 2, "resultsCount": 2, "adjusted": true,
+                 "results": [{"v": 70790813.0, "vw": 131.6292, "o": 131.1, "c": 130.96, "h": 132.4, "l": 129.78, "t": 1609743600000, "n": 1},
+                             {"v": 64.5, "o": 130.0, "c": 131.0, "h": 131.5, "l": 129.5, "t": 1609743900000}],
+                 "status": "OK", "request_id": "abc", "count": 2}
+                """, new ProviderHints(null, null, "America/New_York"));
+
+        assertThat(series.symbol()).isEqualTo("AAPL");
+        assertThat(series.interval()).isEqualTo("5m");
+        assertThat(series.timeZone()).isEqualTo("America/New_York");
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.epoch(0)).isEqualTo(Timestamps.parseEpochSeconds("2021-01-04 02:00:00"));
+        assertThat(series.volume(0)).isEqualTo(70_790_813L);
+        assertThat(series.volume(1)).isEqualTo(65L);
+    }
+
+    @Test
+    void decodesBinanceKlinesWithHints() throws IOException {
+        BarSeries series = decode("""
+                [[1499040000000, "0.01634790", "0.80000000", "0.01575800", "0.01577100", "148976.11427815", 1499644799999, "2434.19", 308, "1756.87", "28.46", "0"],
+                 [1499126400000, "0.01577100", "0.01700000", "0.01500000", "0.01600000", "1000", 1499731199999, "16.0", 10, "0", "0", "0"]]
+                """, new ProviderHints("BNBBTC", "1d", null));
+
+        assertThat(series.symbol()).isEqualTo("BNBBTC");
+        assertThat(series.interval()).isEqualTo("1d");
+        assertThat(series.timeZone()).isEqualTo("UTC");
+        assertThat(series.dateLabels()).isTrue();
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.high(0)).isEqualTo(0.8);
+        assertThat(series.volume(0)).isEqualTo(148_976L);
+    }
+
+    @Test
+    void requiresSymbolForBinance() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> decode("[[1499040000000, \"1\", \"1\", \"1\", \"1\", \"1\"]]", ProviderHints.NONE))
+                .withMessageContaining("symbol");
+    }
+
+    @Test
+    void decodesYahooChartInExchangeTimeZone() throws IOException {
+        BarSeries series = decode("""
+                {"chart": {"result": [{
+                   "meta": {"currency": "USD", "symbol": "MSFT", "exchangeTimezoneName": "America/New_York", "dataGranularity": "5m"},
+                   "timestamp": [1704465000, 1704465300, 1704465600],
+                   "indicators": {"quote": [{"volume": [100, null, 300], "open": [1.0, 2.0, 3.0],
+                                             "high": [1.5, 2.5, 3.5], "low": [0.5, 1.5, 2.5], "close": [1.2, 2.2, 3.2]}]}}],
+                 "error": null}}
+                """, ProviderHints.NONE);
+
+        assertThat(series.symbol()).isEqualTo("MSFT");
+        assertThat(series.interval()).isEqualTo("5m");
+        assertThat(series.timeZone()).isEqualTo("America/New_York");
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.epoch(0)).isEqualTo(Timestamps.parseEpochSeconds("2024-01-05 09:30:00"));
+        assertThat(series.open(1)).isEqualTo(3.0);
+    }
+
+    @Test
+    void decodesFinnhubCandles() throws IOException {
+        BarSeries series = decode("""
+                {"c": [217.68, 221.03], "h": [222.49, 221.5], "l": [217.19, 217.1402], "o": [221.03, 218.55],
+                 "s": "ok", "t": [1569297600, 1569384000], "v": [33463820, 24018876]}
+                """, new ProviderHints("AAPL", null, null));
+
+        assertThat(series.symbol()).isEqualTo("AAPL");
+        assertThat(series.interval()).isEqualTo("1d");
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.close(1)).isEqualTo(221.03);
+        assertThat(series.volume(1)).isEqualTo(24_018_876L);
+    }
+
+    @Test
+    void readsFinnhubResolutionHints() throws IOException {
+        String candles = """
+                {"c": [217.68], "h": [222.49], "l": [217.19], "o": [221.03], "s": "ok", "t": [1569297600], "v": [33463820]}
+                """;
+
+        assertThat(decode(candles, new ProviderHints("AAPL", "60", null)).interval()).isEqualTo("1h");
+        BarSeries weekly = decode(candles, new ProviderHints("AAPL", "W", null));
+        assertThat(weekly.interval()).isEqualTo("1w");
+        assertThat(weekly.dateLabels()).isTrue();
+        assertThat(decode(candles, new ProviderHints("AAPL", "M", null)).interval()).isEqualTo("1mo");
+    }
+
+    @Test
+    void skipsRowsWithOutOfRangePrices() throws IOException {
+        BarSeries alphaVantage = decode("""
+                {"Meta Data": {"2. Symbol": "IBM", "4. Interval": "5min", "6. Time Zone": "US/Eastern"},
+                 "Time Series (5min)": {
+                   "2024-01-05 19:55:00": {"1. open": "1e400", "2. high": "161.0", "3. low": "159.0", "4. close": "160.5", "5. volume": "100"},
+                   "2024-01-05 19:50:00": {"1. open": "160.0", "2. high": "161.0", "3. low": "159.0", "4. close": "160.5", "5. volume": "100"}
+                 }}
+                """, ProviderHints.NONE);
+        BarSeries polygon = decode("""
+                {"ticker": "AAPL", "results": [{"v": 1, "o": 1e400, "c": 1.0, "h": 1.0, "l": 1.0, "t": 1609743600000},
+                                               {"v": 1, "o": 1.0, "c": 1.0, "h": 1.0, "l": 1.0, "t": 1609743900000}]}
+                """, new ProviderHints(null, "5m", null));
+        BarSeries finnhub = decode("""
+                {"c": [217.68, 221.03], "h": [222.49, 1e400], "l": [217.19, 217.1402], "o": [221.03, 218.55],
+                 "s": "ok", "t": [1569297600, 1569384000], "v": [33463820, 24018876]}
+                """, new ProviderHints("AAPL", "1d", null));
+
+        for (BarSeries series : List.of(alphaVantage, polygon, finnhub)) {
+            assertThat(series.size()).isEqualTo(1);
+            assertThat(series.skipped()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rejectsUnknownShapes() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> decode("{\"foo\": 1}", ProviderHints.NONE))
+                .withMessageContaining("does not match any provider");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> decode("{\"Note\": \"Thank you for using Alpha Vantage!\"}", ProviderHints.NONE))
+                .withMessageContaining("Thank you");
+    }
+
+    @Test
+    void decodesPayloadFedInChunksLikeAStream() throws IOException {
+        String json = """
+                {"Meta Data": {"2. Symbol": "IBM", "4. Interval": "5min", "6. Time Zone": "US/Eastern"},
+                 "Time Series (5min)": {
+                   "2024-01-05 19:55:00": {"1. open": "160.01", "2. high": "160.2", "3. low": "159.9", "4. close": "160.1", "5. volume": "1200"},
+                   "2024-01-05 19:50:00": {"1. open": "159.9", "2. high": "160.05", "3. low": "159.85", "4. close": "160.01", "5. volume": "800"}
+                 }}
+                """;
+        BarSeries expected = decode(json, ProviderHints.NONE);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        for (int chunk : new int[]{1, 7, bytes.length}) {
+            BarSeries series = new BarSeries();
+            try (ChunkedDecoder decoder = registry.newChunkedDecoder(jsonFactory, null, ProviderHints.NONE, series)) {
+                for (int from = 0; from < bytes.length; from += chunk) {
+                    decoder.feed(bytes, from, Math.min(chunk, bytes.length - from));
+                }
+                decoder.finish();
+            }
+            assertThat(series.provider()).isEqualTo("alphavantage");
+            assertThat(series.symbol()).isEqualTo(expected.symbol());
+            assertThat(series.size()).isEqualTo(expected.size());
+            for (int i = 0; i < series.size(); i++) {
+                assertThat(series.epoch(i)).isEqualTo(expected.epoch(i));
+                assertThat(series.low(i)).isEqualTo(expected.low(i));
+                assertThat(series.volume(i)).isEqualTo(expected.volume(i));
+            }
+        }
+
+        try (ChunkedDecoder decoder = registry.newChunkedDecoder(jsonFactory, null, ProviderHints.NONE,
+                new BarSeries())) {
+            decoder.feed(bytes, 0, bytes.length / 2);
+            assertThatThrownBy(decoder::finish).isInstanceOf(IOException.class);
+        }
+    }
+
+    private BarSeries decode(String json, ProviderHints hints) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return registry.decode(parser, null, hints);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.parser.LLM.Data.store;
+
+import com.parser.LLM.Data.normalize.BarSeries;
+import com.parser.LLM.Data.normalize.BarSink;
+import com.parser.LLM.Data.normalize.SortOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarStoreTests {
+
+    private static final long T0 = 1_704_465_000L;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void appendsOnlyBarsNotStoredYet() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 0, 6));
+        store.append(series("UTC", 3, 10));
+
+        StoredSeries stored = store.find("BTC/USD", "1m");
+        assertThat(stored.size()).isEqualTo(10);
+        assertThat(epochs(stored)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(outcome("appended")).isEqualTo(10);
+        assertThat(outcome("duplicate")).isEqualTo(3);
+        // Ten bars at four per segment
+        try (Stream<Path> files = Files.list(directory.resolve("BTC%2FUSD").resolve("1m"))) {
+            assertThat(files.filter(file -> file.toString().endsWith(Segment.SUFFIX))).hasSize(3);
+        }
+    }
+
+    @Test
+    void overwritesTheLastBarAndPrependsOlderBars() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 5, 8));
+        BarSeries revised = new BarSeries();
+        revised.describe("BTC/USD", "1m", "UTC", false);
+        revised.add(T0 + 7 * 60, 42, 43, 41, 42.5, 99);
+        store.append(revised);
+        assertThat(outcome("updated")).isEqualTo(1);
+
+        BarSeries older = series("UTC", 0, 6);
+        older.add(T0 + 8 * 60, 1, 1, 1, 1, 1);
+        store.append(older);
+
+        StoredSeries stored = store.find("BTC/USD", "1m");
+        assertThat(epochs(stored)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(bars(stored).get(7)).containsExactly(7, 42, 43, 41, 42.5, 99);
+
+        // Bars in another time zone would land at the wrong instants
+        store.append(series("US/Eastern", 9, 12));
+        assertThat(stored.size()).isEqualTo(9);
+        assertThat(outcome("rejected")).isEqualTo(3);
+    }
+
+    @Test
+    void fillsGapsInsideTheStoredRange() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 0, 4));
+        store.append(series("UTC", 8, 12));
+        store.append(series("UTC", 2, 10));
+
+        StoredSeries stored = store.find("BTC/USD", "1m");
+        assertThat(epochs(stored)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+        assertThat(bars(stored).get(5)).containsExactly(5, 5, 6, 4, 5.5, 50);
+        assertThat(outcome("appended")).isEqualTo(12);
+        assertThat(outcome("duplicate")).isEqualTo(4);
+        assertThat(range(stored, 3, 8, 0, SortOrder.DESC)).containsExactly(8L, 7L, 6L, 5L, 4L, 3L);
+
+        // Older bars are merged into the first segment rather than left in a part-filled one
+        store.append(series("UTC", -2, 1));
+        assertThat(stored.size()).isEqualTo(14);
+        Path seriesDirectory = directory.resolve("BTC%2FUSD").resolve("1m");
+        try (Stream<Path> files = Files.list(seriesDirectory)) {
+            assertThat(files.map(file -> file.getFileName().toString()).filter(name -> !name.endsWith(".properties")))
+                    .allMatch(name -> name.endsWith(Segment.SUFFIX))
+                    .hasSize(4);
+        }
+
+        store.destroy();
+        StoredSeries reopened = store(4).find("BTC/USD", "1m");
+        assertThat(epochs(reopened))
+                .containsExactly(-2L, -1L, 0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+    }
+
+    @Test
+    void undoesAnUnrecordedRewriteOnReopen() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 4, 8));
+        store.destroy();
+
+        // A backfill of minutes 0 and 1 that died while writing its first segment
+        Path seriesDirectory = directory.resolve("BTC%2FUSD").resolve("1m");
+        Segment partial = Segment.create(seriesDirectory.resolve(T0 + Segment.SUFFIX + StoredSeries.TEMP_SUFFIX), 4);
+        partial.append(T0, 0, 1, -1, 0.5, 0);
+        partial.force();
+
+        StoredSeries reopened = store(4).find("BTC/USD", "1m");
+        assertThat(epochs(reopened)).containsExactly(4L, 5L, 6L, 7L);
+        try (Stream<Path> files = Files.list(seriesDirectory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder(StoredSeries.META_FILE, (T0 + 4 * 60) + Segment.SUFFIX);
+        }
+    }
+
+    @Test
+    void finishesARecordedRewriteOnReopen() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 4, 8));
+        store.destroy();
+
+        // Minutes 0 and 1 merged into [0, 1, 4, 5] and [6, 7], interrupted after the first was moved into place
+        Path seriesDirectory = directory.resolve("BTC%2FUSD").resolve("1m");
+        String first = T0 + Segment.SUFFIX;
+        String second = (T0 + 6 * 60) + Segment.SUFFIX;
+        Segment moved = Segment.create(seriesDirectory.resolve(first), 4);
+        Segment pending = Segment.create(seriesDirectory.resolve(second + StoredSeries.TEMP_SUFFIX), 4);
+        for (int minute : new int[] {0, 1, 4, 5, 6, 7}) {
+            (minute < 6 ? moved : pending).append(T0 + minute * 60L, minute, minute + 1, minute - 1,
+                    minute + 0.5, 10L * minute);
+        }
+        moved.force();
+        pending.force();
+        Properties rewrite = new Properties();
+        rewrite.setProperty("replaces", (T0 + 4 * 60) + Segment.SUFFIX);
+        rewrite.setProperty("segments", first + " " + second);
+        try (Writer out = Files.newBufferedWriter(seriesDirectory.resolve(StoredSeries.REWRITE_FILE))) {
+            rewrite.store(out, null);
+        }
+
+        StoredSeries reopened = store(4).find("BTC/USD", "1m");
+        assertThat(epochs(reopened)).containsExactly(0L, 1L, 4L, 5L, 6L, 7L);
+        try (Stream<Path> files = Files.list(seriesDirectory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder(StoredSeries.META_FILE, first, second);
+        }
+    }
+
+    @Test
+    void reopensStoredSeriesFromDisk() throws Exception {
+        BarStore first = store(4);
+        first.append(series("UTC", 0, 7));
+        first.destroy();
+
+        BarStore reopened = store(4);
+        StoredSeries stored = reopened.find("BTC/USD", "1m");
+        assertThat(stored.timeZone()).isEqualTo("UTC");
+        assertThat(epochs(stored)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        reopened.append(series("UTC", 5, 9));
+        assertThat(stored.size()).isEqualTo(9);
+        assertThat(reopened.find("ETH/USD", "1m")).isNull();
+    }
+
+    @Test
+    void readsRangesAcrossSegments() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 10, 20));
+        store.append(series("UTC", 0, 10));
+        StoredSeries stored = store.find("BTC/USD", "1m");
+
+        assertThat(range(stored, 3, 9, 0, SortOrder.ASC)).containsExactly(3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(range(stored, 3, 9, 0, SortOrder.DESC)).containsExactly(9L, 8L, 7L, 6L, 5L, 4L, 3L);
+        assertThat(range(stored, 0, 19, 3, SortOrder.DESC)).containsExactly(19L, 18L, 17L);
+        assertThat(range(stored, 0, 19, 5, SortOrder.ASC)).containsExactly(15L, 16L, 17L, 18L, 19L);
+        // Bounds between bars, and outside the stored range
+        assertThat(range(stored, -5, 0, 0, SortOrder.ASC)).containsExactly(0L);
+        assertThat(range(stored, 20, 30, 0, SortOrder.ASC)).isEmpty();
+        List<Long> between = new ArrayList<>();
+        stored.replay(T0 + 4 * 60 + 1, T0 + 8 * 60 - 1, 0, SortOrder.ASC, sink(between));
+        assertThat(between).containsExactly(5L, 6L, 7L);
+    }
+
+    @Test
+    void looksUpSymbolsRegardlessOfCase() throws Exception {
+        BarStore store = store(4);
+        store.append(series("UTC", 0, 4));
+        BarSeries lower = series("UTC", 2, 6);
+        lower.describe("btc/usd", "1m", "UTC", false);
+        store.append(lower);
+
+        StoredSeries stored = store.find("Btc/Usd", "1m");
+        assertThat(stored.symbol()).isEqualTo("BTC/USD");
+        assertThat(epochs(stored)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void countsFailedWritesInsteadOfThrowing() throws Exception {
+        Path notADirectory = Files.createFile(directory.resolve("store"));
+        BarStore store = new BarStore(new StoreProperties(true, notADirectory, 4), registry);
+
+        store.append(series("UTC", 0, 3));
+        assertThat(outcome("failed")).isEqualTo(3);
+    }
+
+    @Test
+    void keepsSymbolsInsideTheStoreDirectory() {
+        assertThat(BarStore.fileName("..")).isEqualTo("%2E.");
+        assertThat(BarStore.fileName("EUR/USD")).isEqualTo("EUR%2FUSD");
+        assertThat(BarStore.fileName("^GSPC")).isEqualTo("%5EGSPC");
+    }
+
+    private BarStore store(int segmentBars) {
+        return new BarStore(new StoreProperties(true, directory, segmentBars), registry);
+    }
+
+    private double outcome(String outcome) {
+        return registry.get("llm.store.bars").tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Minute bars {@code from} to {@code to - 1}, oldest first, priced by their index.
+     */
+    private static BarSeries series(String timeZone, int from, int to) {
+        BarSeries series = new BarSeries();
+        series.describe("BTC/USD", "1m", timeZone, false);
+        for (int i = from; i < to; i++) {
+            series.add(T0 + i * 60L, i, i + 1, i - 1, i + 0.5, 10L * i);
+        }
+        return series;
+    }
+
+    /**
+     * Minutes of the bars stored between minute {@code from} and {@code to}.
+     */
+    private static List<Long> range(StoredSeries stored, int from, int to, int last, SortOrder order) {
+        List<Long> minutes = new ArrayList<>();
+        int written = stored.replay(T0 + from * 60L, T0 + to * 60L, last, order, sink(minutes));
+        assertThat(written).isEqualTo(minutes.size());
+        return minutes;
+    }
+
+    private static BarSink sink(List<Long> minutes) {
+        return new BarSink() {
+            @Override
+            public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+            }
+
+            @Override
+            public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+                minutes.add((epochSeconds - T0) / 60);
+            }
+        };
+    }
+
+    private static List<Long> epochs(StoredSeries stored) {
+        List<Long> epochs = new ArrayList<>();
+        for (double[] bar : bars(stored)) {
+            epochs.add((long) bar[0]);
+        }
+        return epochs;
+    }
+
+    /**
+     * Stored bars as {@code [minute, open, high, low, close, volume]}.
+     */
+    private static List<double[]> bars(StoredSeries stored) {
+        List<double[]> bars = new ArrayList<>();
+        stored.replay(new BarSink() {
+            @Override
+            public void describe(String symbol, String interval, String timeZone, boolean dateLabels) {
+            }
+
+            @Override
+            public void add(long epochSeconds, double open, double high, double low, double close, long volume) {
+                bars.add(new double[] {(epochSeconds - T0) / 60, open, high, low, close, volume});
+            }
+        });
+        return bars;
+    }
+}